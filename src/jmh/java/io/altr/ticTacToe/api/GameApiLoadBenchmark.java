@@ -0,0 +1,162 @@
+package io.altr.ticTacToe.api;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load tests the HTTP API against the in-memory test database, once per mode: "platform" runs
+ * Tomcat on platform threads, "virtual" on virtual threads (Java 21 only), and "reactive" runs the
+ * WebFlux and R2DBC variant on Netty. Each mode other than "platform" is the Spring profile of that
+ * name, and profiles can be combined with "+", as in "virtual+async".
+ *
+ * Every client owns one game and plays the same drawn game in it over and over, one request at a
+ * time: 9 moves, then a restart. All clients run at once over their own connections, so the client
+ * count is the number of concurrent requests. Many clients need a high open file limit (`ulimit -n`).
+ *
+ * Configured with the system properties `load.clients`, `load.seconds` and `load.modes`. Logging
+ * is turned down to WARN, unless `load.logging` is true, which keeps the logging configuration of
+ * the profiles to measure its cost, as in `-Dload.modes=platform,async -Dload.logging=true`.
+ */
+public final class GameApiLoadBenchmark {
+    // The moves of a drawn game, X moving first.
+    private static final String[] drawnGame = {"b2", "a3", "c3", "a1", "a2", "c2", "b1", "b3", "c1"};
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(MAX_LATENCY_MS + 1);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final String baseUrl;
+    private volatile long deadline;
+
+    private GameApiLoadBenchmark(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 10_000);
+        int seconds = Integer.getInteger("load.seconds", 20);
+        String modes = System.getProperty("load.modes", "platform,virtual,reactive");
+        boolean logging = Boolean.getBoolean("load.logging");
+        // Devtools is on the classpath here. Its restarter would run the app in another thread and
+        // class loader, and its defaults log every rejected move.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        System.setProperty("spring.devtools.add-properties", "false");
+
+        System.out.printf("%-14s %8s %10s %10s %8s %8s %8s %8s%n",
+                "mode", "clients", "requests", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        for (String mode : modes.split(",")) {
+            List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false"));
+            if (!logging) {
+                appArgs.add("--logging.level.root=WARN");
+                appArgs.add("--logging.level.io.altr.ticTacToe=WARN");
+            }
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(TicTacToeApiApplication.class)
+                    .profiles(Arrays.stream(mode.split("\\+")).filter(profile -> !profile.equals("platform")).toArray(String[]::new))
+                    .run(appArgs.toArray(new String[0]));
+            try {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                GameApiLoadBenchmark benchmark = new GameApiLoadBenchmark("http://localhost:" + port + "/api");
+                benchmark.run(clients, seconds);
+                benchmark.print(mode, clients, seconds);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private void run(int clients, int seconds) throws Exception {
+        int[] gameIds = new int[clients];
+        for (int created = 0; created < clients; ) {
+            int count = Math.min(10_000, clients - created);
+            String body = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/newGames?count=" + count))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString()).body();
+            // [{"gameId":1},{"gameId":2},...] without pulling a JSON parser into the hot loop.
+            for (String part : body.split("\"gameId\":")) {
+                if (part.startsWith("[")) continue;
+                gameIds[created++] = Integer.parseInt(part.substring(0, part.indexOf('}')));
+            }
+        }
+
+        // Warm up for a fifth of the run, then measure.
+        deadline = System.nanoTime() + seconds * 200_000_000L;
+        play(gameIds);
+        reset();
+        deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        play(gameIds);
+    }
+
+    private void play(int[] gameIds) {
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[gameIds.length];
+        for (int i = 0; i < gameIds.length; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            // Start with a restart, so every client is in step whatever the last phase left behind.
+            next(gameIds[i], drawnGame.length, done);
+            clients[i] = done;
+        }
+        CompletableFuture.allOf(clients).join();
+    }
+
+    private void next(int gameId, int move, CompletableFuture<Void> done) {
+        if (System.nanoTime() > deadline) {
+            done.complete(null);
+            return;
+        }
+
+        HttpRequest request = move == drawnGame.length
+                ? HttpRequest.newBuilder(URI.create(baseUrl + "/" + gameId + "/restart"))
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build()
+                : HttpRequest.newBuilder(URI.create(baseUrl + "/" + gameId + "/place"))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(
+                                "{\"mark\": \"" + (move % 2 == 0 ? "X" : "O") + "\", \"pos\": \"" + drawnGame[move] + "\"}"))
+                        .build();
+
+        long start = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            record(System.nanoTime() - start, error == null && response.statusCode() == 200);
+            // A failed move leaves the game where it was, so restart it to get back in step.
+            next(gameId, error == null && response.statusCode() == 200 ? (move + 1) % (drawnGame.length + 1) : drawnGame.length, done);
+        });
+    }
+
+    private void record(long nanos, boolean ok) {
+        requests.increment();
+        if (!ok) errors.increment();
+        latencyHistogram.incrementAndGet((int) Math.min(MAX_LATENCY_MS, nanos / 1_000_000));
+    }
+
+    private void reset() {
+        requests.reset();
+        errors.reset();
+        for (int i = 0; i < latencyHistogram.length(); i++) latencyHistogram.set(i, 0);
+    }
+
+    private void print(String mode, int clients, int seconds) {
+        long total = requests.sum();
+        System.out.printf("%-14s %8d %10d %10d %8d %8d %8d %8d%n",
+                mode, clients, total, total / seconds, errors.sum(),
+                percentile(total, 0.50), percentile(total, 0.99), percentile(total, 1.0));
+    }
+
+    private int percentile(long total, double fraction) {
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int ms = 0; ms < latencyHistogram.length(); ms++) {
+            seen += latencyHistogram.get(ms);
+            if (seen >= rank && seen > 0) return ms;
+        }
+        return MAX_LATENCY_MS;
+    }
+}
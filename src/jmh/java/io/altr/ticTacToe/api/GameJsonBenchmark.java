@@ -0,0 +1,88 @@
+package io.altr.ticTacToe.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.cache.GameJsonCache;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing the JSON of a game with Jackson, as every game response did before, with
+ * copying it out of the `GameJsonCache`. Both write into a reused buffer, like a response does,
+ * cycling through the states of a drawn game.
+ *
+ * Also measures the reading side: a game response parsed into a tree, the way clients and the
+ * tests read it, since `Game` has no creator to bind to, and a move request body read into a
+ * `PlaceRequest`, as every move is.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameJsonBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GameJsonCache gameJsonCache = new GameJsonCache(objectMapper);
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    private final Game[] games = new Game[10];
+    private final byte[][] gameBodies = new byte[games.length][];
+    private final byte[][] moveBodies = new byte[games.length - 1][];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Game game = new Game();
+        Pos[] drawnGame = {Pos.b2, Pos.a3, Pos.c3, Pos.a1, Pos.a2, Pos.c2, Pos.b1, Pos.b3, Pos.c1};
+        games[0] = new Game();
+        for (int i = 0; i < drawnGame.length; i++) {
+            game.tryPlace(game.getTurnOf(), drawnGame[i]);
+            games[i + 1] = new Game(game.getTileMask());
+            moveBodies[i] = ("{\"mark\": \"" + (i % 2 == 0 ? Mark.X : Mark.O) + "\", \"pos\": \"" + drawnGame[i] + "\"}").getBytes();
+        }
+        for (int i = 0; i < games.length; i++) {
+            gameBodies[i] = gameJsonCache.get(games[i].getTileMask());
+        }
+    }
+
+    private int nextIndex(int length) {
+        int index = next;
+        next = next == length - 1 ? 0 : next + 1;
+        return index;
+    }
+
+    private Game nextGame() {
+        return games[nextIndex(games.length)];
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        body.reset();
+        objectMapper.writeValue(body, nextGame());
+        return body.size();
+    }
+
+    @Benchmark
+    public int cached() throws IOException {
+        body.reset();
+        body.write(gameJsonCache.get(nextGame().getTileMask()));
+        return body.size();
+    }
+
+    @Benchmark
+    public JsonNode decodeGame() throws IOException {
+        return objectMapper.readTree(gameBodies[nextIndex(gameBodies.length)]);
+    }
+
+    @Benchmark
+    public PlaceRequest decodeMove() throws IOException {
+        return objectMapper.readValue(moveBodies[nextIndex(moveBodies.length)], PlaceRequest.class);
+    }
+}
@@ -0,0 +1,109 @@
+package io.altr.ticTacToe.api;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.repository.GameRepository;
+import io.altr.ticTacToe.api.repository.JpaGameStore;
+import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdateRegistry;
+import io.altr.ticTacToe.api.service.impl.GameMetrics;
+import io.altr.ticTacToe.api.service.impl.GameServiceImpl;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures `GameServiceImpl.placeInGame` per move, cycling one game through a drawn game and a
+ * restart, like a client of the load benchmark does. The repository is either a Mockito mock,
+ * which leaves the service, the cache and the engine, or a `GameStore` of the application:
+ *
+ * - "h2", the compare-and-set UPDATE every move is written with, on an in-memory H2 database
+ * - "events", the INSERT of every move into the move log, on the same database
+ * - "journal", the memory-mapped journal, forcing every move to disk before it returns
+ * - "memory", the compare-and-set of one long in the in-memory store
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameServiceBenchmark {
+    private static final Pos[] drawnGame = {Pos.b2, Pos.a3, Pos.c3, Pos.a1, Pos.a2, Pos.c2, Pos.b1, Pos.b3, Pos.c1};
+
+    @Param({"mock", "h2", "events", "journal", "memory"})
+    public String repository;
+
+    private final PlaceRequest[] moves = new PlaceRequest[drawnGame.length];
+    private ConfigurableApplicationContext context;
+    private Path journal;
+    private GameService gameService;
+    private int gameId;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < drawnGame.length; i++) {
+            moves[i] = PlaceRequest.of(i % 2 == 0 ? Mark.X : Mark.O, drawnGame[i]);
+        }
+
+        if (repository.equals("mock")) {
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("io.altr.ticTacToe")).setLevel(Level.OFF);
+            // Stub only, so the mock doesn't keep every call around for verification.
+            GameRepository gameRepository = mock(GameRepository.class, withSettings().stubOnly());
+            gameId = 1;
+            when(gameRepository.compareAndSetTileMask(eq(gameId), anyInt(), anyInt())).thenReturn(1);
+            GameCache gameCache = new GameCache(1000, 600_000, false);
+            gameCache.putIfNewer(gameId, 0, 0);
+            // Not in write-behind mode, so nothing is ever flushed.
+            gameService = new GameServiceImpl(new JpaGameStore(gameRepository), gameCache, null,
+                    new GameUpdateRegistry(new ObjectMapper()), new GameMetrics(new SimpleMeterRegistry()));
+        } else {
+            // Devtools is on the classpath here, and its restarter would run the app in another thread.
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            journal = Files.createTempDirectory("journal");
+            context = new SpringApplicationBuilder(TicTacToeApiApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles(repository.equals("h2") ? new String[0] : new String[]{repository})
+                    .run("--tictactoe.journal.path=" + journal.resolve("games.journal"),
+                            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.root=WARN",
+                            "--logging.level.io.altr.ticTacToe=OFF");
+            gameService = context.getBean(GameService.class);
+            gameId = gameService.createNewGame().getGameId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (context != null) context.close();
+        if (journal != null) FileSystemUtils.deleteRecursively(journal);
+    }
+
+    @Benchmark
+    public Game placeInGame() {
+        if (next == drawnGame.length) {
+            next = 0;
+            return gameService.restartGame(gameId);
+        }
+        return gameService.placeInGame(gameId, moves[next++]);
+    }
+}
@@ -0,0 +1,76 @@
+package io.altr.ticTacToe.api;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.exception.GameExceptionHandler;
+import io.altr.ticTacToe.api.exception.GameStateOutOfTurnException;
+import io.altr.ticTacToe.api.exception.WrongFieldNameException;
+import io.altr.ticTacToe.api.service.GameUpdateRegistry;
+import io.altr.ticTacToe.api.service.impl.GameMetrics;
+import io.altr.ticTacToe.api.service.impl.GameServiceImpl;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rejection path of a move, from `GameServiceImpl.placeInGame` through
+ * `GameExceptionHandler` to the encoded error body, short of HTTP itself. The game is served from
+ * the cache, so no repository is needed, and logging is off so only the rejection is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RejectedMoveBenchmark {
+    private static final int GAME_ID = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PlaceRequest outOfTurn = PlaceRequest.of(Mark.O, Pos.b2);
+    private final PlaceRequest wrongPos = new PlaceRequest(null, Mark.X.ordinal(), PlaceRequest.INVALID);
+    private GameServiceImpl gameService;
+    private GameExceptionHandler gameExceptionHandler;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("io.altr.ticTacToe")).setLevel(Level.OFF);
+        GameCache gameCache = new GameCache(1000, 600_000, false);
+        gameCache.putIfNewer(GAME_ID, 0, 0);
+        gameService = new GameServiceImpl(null, gameCache, null, new GameUpdateRegistry(objectMapper),
+                new GameMetrics(new SimpleMeterRegistry()));
+        gameExceptionHandler = new GameExceptionHandler(objectMapper);
+    }
+
+    private byte[] encode(ResponseEntity<Object> response) throws Exception {
+        Object body = response.getBody();
+        return body instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] outOfTurn() throws Exception {
+        try {
+            gameService.placeInGame(GAME_ID, outOfTurn);
+            throw new IllegalStateException("The move should have been rejected.");
+        } catch (GameStateOutOfTurnException e) {
+            return encode(gameExceptionHandler.handleGameStateOutOfTurnException(e));
+        }
+    }
+
+    @Benchmark
+    public byte[] wrongPos() throws Exception {
+        try {
+            gameService.placeInGame(GAME_ID, wrongPos);
+            throw new IllegalStateException("The move should have been rejected.");
+        } catch (WrongFieldNameException e) {
+            return encode(gameExceptionHandler.handleWrongFieldNameException(e));
+        }
+    }
+}
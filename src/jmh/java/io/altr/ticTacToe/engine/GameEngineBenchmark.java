@@ -0,0 +1,78 @@
+package io.altr.ticTacToe.engine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the 3x3 `Game` with `MnkGame` configured as 3,3,3 by playing the same drawn game
+ * of 9 moves on a fresh board per invocation, and measures the single `Game` operations the API
+ * runs per request on a board halfway through that game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+    // Board positions (0-8) of a drawn game, X moving first.
+    private static final int[] drawnGame = {4, 8, 6, 2, 5, 3, 1, 7, 0};
+
+    // The drawn game after its first 4 moves, with X to move.
+    private final Game midGame = new Game();
+    private int midGameTileMask;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 4; i++) {
+            midGame.tryPlace(midGame.getTurnOf(), drawnGame[i]);
+        }
+        midGameTileMask = midGame.getTileMask();
+    }
+
+    @Benchmark
+    public Mark game(){
+        Game game = new Game();
+        for (int pos : drawnGame) {
+            game.tryPlace(game.getTurnOf(), pos);
+        }
+        return game.getWhoWon();
+    }
+
+    @Benchmark
+    public Mark mnkGame(){
+        MnkGame game = new MnkGame(3, 3, 3);
+        for (int pos : drawnGame) {
+            game.tryPlace(game.getTurnOf(), 2 - pos / 3, 2 - pos % 3);
+        }
+        return game.getWhoWon();
+    }
+
+    @Benchmark
+    public Game fromTileMask() {
+        return new Game(midGameTileMask);
+    }
+
+    @Benchmark
+    public Optional<Misplace> doPlace() {
+        Game game = new Game(midGameTileMask);
+        return game.doPlace(Mark.X, Pos.b1);
+    }
+
+    @Benchmark
+    public Optional<Misplace> doPlaceTaken() {
+        return midGame.doPlace(Mark.X, Pos.b2);
+    }
+
+    @Benchmark
+    public boolean hasWon() {
+        return midGame.hasWon(Mark.X);
+    }
+
+    @Benchmark
+    public Mark[] getBoard() {
+        return midGame.getBoard();
+    }
+}
@@ -0,0 +1,485 @@
+package io.altr.ticTacToe.api.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory cache of live games, mapping a gameId to its tileMask and version.
+ *
+ * Entries are kept in primitive open-addressing tables split into lock-striped segments, so
+ * lookups neither box nor allocate. A segment that is full evicts its least recently used clean
+ * entry out of a small sample, or any clean entry if the sample holds none, and entries idle for
+ * longer than the idle timeout are dropped by `evictIdle`. Dirty entries, written in write-behind
+ * mode and not yet flushed, are never evicted, so a segment full of them takes no new entries
+ * until they are flushed: the games are read from the repository uncached meanwhile.
+ */
+public class GameCache {
+    public static final long MISSING = -1L;
+
+    // Results of `compareAndSetDirty`.
+    public static final int SET = 0;
+    public static final int CHANGED = 1;
+    public static final int FULL = 2;
+
+    private static final int STRIPES = 16;
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxEntriesPerStripe;
+    private final long idleTimeoutNanos;
+    private final boolean writeBehind;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public GameCache(int maxSize, long idleTimeoutMillis, boolean writeBehind) {
+        this.maxEntriesPerStripe = Math.max(1, maxSize / STRIPES);
+        this.idleTimeoutNanos = idleTimeoutMillis * 1_000_000L;
+        this.writeBehind = writeBehind;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+
+
+
+
+    public static long entryOf(int version, int tileMask) {
+        return (long) version << 32 | (tileMask & 0xFFFFFFFFL);
+    }
+
+    public static int tileMaskOf(long entry) {
+        return (int) entry;
+    }
+
+    public static int versionOf(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+
+
+
+
+    /**
+     * Retrieves the cached state of a game.
+     *
+     * @param gameId the ID of the game to look up
+     * @return the tileMask and version packed into one long, to be read with `tileMaskOf` and
+     *         `versionOf`, or `MISSING` if the game isn't cached
+     */
+    public long get(int gameId) {
+        Stripe stripe = stripeOf(gameId);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(gameId);
+            if (slot < 0) {
+                misses.increment();
+                return MISSING;
+            }
+            hits.increment();
+            stripe.accessed[slot] = System.nanoTime();
+            return (long) stripe.versions[slot] << 32 | (stripe.tileMasks[slot] & 0xFFFFFFFFL);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+
+
+    /**
+     * Caches the state of a game unless a newer version of it is already cached.
+     * Used after loading a game from the repository and after writing a move through to it.
+     * Nothing is cached if the segment of the game is full of dirty entries.
+     *
+     * @param gameId the ID of the game
+     * @param tileMask the tileMask of the game
+     * @param version the version of the game the tileMask belongs to
+     */
+    public void putIfNewer(int gameId, int tileMask, int version) {
+        Stripe stripe = stripeOf(gameId);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(gameId);
+            if (slot >= 0) {
+                if (stripe.versions[slot] >= version) return;
+                stripe.tileMasks[slot] = tileMask;
+                stripe.versions[slot] = version;
+                stripe.accessed[slot] = System.nanoTime();
+                return;
+            }
+            if (!makeRoom(stripe)) return;
+            stripe.insert(gameId, tileMask, version, false);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+
+
+    /**
+     * Replaces the cached tileMask of a game if its version is still the expected one,
+     * and bumps the version by one.
+     *
+     * @param gameId the ID of the game
+     * @param expectedVersion the version the new tileMask was computed from
+     * @param tileMask the new tileMask
+     * @param dirty whether the entry must be flushed to the repository later
+     * @return `true` if the entry was replaced, `false` if it's missing or has another version
+     */
+    public boolean compareAndSet(int gameId, int expectedVersion, int tileMask, boolean dirty) {
+        Stripe stripe = stripeOf(gameId);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(gameId);
+            if (slot < 0 || stripe.versions[slot] != expectedVersion) return false;
+            stripe.tileMasks[slot] = tileMask;
+            stripe.versions[slot] = expectedVersion + 1;
+            stripe.accessed[slot] = System.nanoTime();
+            if (dirty && !stripe.dirty[slot]) {
+                stripe.dirty[slot] = true;
+                stripe.dirtyCount++;
+            }
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+
+
+    /**
+     * Replaces the cached tileMask of a game like `compareAndSet` does, and marks it dirty, also
+     * when the game was evicted since the new tileMask was computed. A missing game is loaded
+     * with `load` under the lock of its segment, so it can't be cached and changed by another
+     * request meanwhile, and cached at the next version if it's still at the expected one. The
+     * repository holds the latest state of every game that isn't cached, since only clean
+     * entries are evicted.
+     *
+     * @param gameId the ID of the game
+     * @param expectedVersion the version the new tileMask was computed from
+     * @param tileMask the new tileMask
+     * @param load reads the game from the repository, as packed by `entryOf`, or `MISSING`
+     * @return `SET` if the entry was replaced or cached, `CHANGED` if the game has another version
+     *         or is gone, or `FULL` if it's missing and its segment is full of dirty entries
+     */
+    public int compareAndSetDirty(int gameId, int expectedVersion, int tileMask, LongSupplier load) {
+        Stripe stripe = stripeOf(gameId);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(gameId);
+            if (slot >= 0) {
+                if (stripe.versions[slot] != expectedVersion) return CHANGED;
+                stripe.tileMasks[slot] = tileMask;
+                stripe.versions[slot] = expectedVersion + 1;
+                stripe.accessed[slot] = System.nanoTime();
+                if (!stripe.dirty[slot]) {
+                    stripe.dirty[slot] = true;
+                    stripe.dirtyCount++;
+                }
+                return SET;
+            }
+            if (!makeRoom(stripe)) return FULL;
+            long loaded = load.getAsLong();
+            if (loaded == MISSING || versionOf(loaded) != expectedVersion) return CHANGED;
+            stripe.insert(gameId, tileMask, expectedVersion + 1, true);
+            return SET;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+
+
+    public void invalidate(int gameId) {
+        Stripe stripe = stripeOf(gameId);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(gameId);
+            if (slot >= 0) stripe.remove(slot);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+
+
+    /**
+     * Copies up to `gameIds.length` dirty entries into the given arrays, without marking them clean.
+     * Call `markClean` for each entry once it has been written to the repository.
+     *
+     * @return the number of entries copied
+     */
+    public int collectDirty(int[] gameIds, int[] tileMasks, int[] versions) {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            if (count == gameIds.length) break;
+            stripe.lock.lock();
+            try {
+                if (stripe.dirtyCount == 0) continue;
+                for (int slot = 0; slot < stripe.keys.length && count < gameIds.length; slot++) {
+                    if (!stripe.used[slot] || !stripe.dirty[slot]) continue;
+                    gameIds[count] = stripe.keys[slot];
+                    tileMasks[count] = stripe.tileMasks[slot];
+                    versions[count] = stripe.versions[slot];
+                    count++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Marks an entry as flushed, unless it has been changed again since the given version was collected.
+     */
+    public void markClean(int gameId, int version) {
+        Stripe stripe = stripeOf(gameId);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(gameId);
+            if (slot < 0 || !stripe.dirty[slot] || stripe.versions[slot] != version) return;
+            stripe.dirty[slot] = false;
+            stripe.dirtyCount--;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int dirtyCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.dirtyCount;
+        }
+        return count;
+    }
+
+
+
+    /**
+     * Drops every clean entry that hasn't been accessed within the idle timeout.
+     *
+     * @return the number of entries evicted
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                int slot = 0;
+                while (slot < stripe.keys.length) {
+                    if (stripe.used[slot] && !stripe.dirty[slot] && now - stripe.accessed[slot] > idleTimeoutNanos) {
+                        // Removal shifts a later entry into this slot, so check it again.
+                        stripe.remove(slot);
+                        evicted++;
+                        continue;
+                    }
+                    slot++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        evictions.add(evicted);
+        return evicted;
+    }
+
+
+
+
+
+    /**
+     * Evicts a clean entry if the segment is full. Called with the lock of the segment held.
+     *
+     * @return `false` if the segment is full of dirty entries
+     */
+    private boolean makeRoom(Stripe stripe) {
+        if (stripe.size < maxEntriesPerStripe) return true;
+        if (!stripe.evictOne()) return false;
+        evictions.increment();
+        return true;
+    }
+
+    private Stripe stripeOf(int gameId) {
+        return stripes[mix(gameId) >>> 28];
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+
+
+    /**
+     * One segment of the cache: an open-addressing table with linear probing, where removals
+     * shift the following entries back instead of leaving tombstones.
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        int[] keys = new int[16];
+        int[] tileMasks = new int[16];
+        int[] versions = new int[16];
+        long[] accessed = new long[16];
+        boolean[] used = new boolean[16];
+        boolean[] dirty = new boolean[16];
+        int size = 0;
+        int dirtyCount = 0;
+        int evictionCursor = 0;
+
+        int find(int key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return slot;
+            }
+            return -1;
+        }
+
+        void insert(int key, int tileMask, int version, boolean isDirty) {
+            if ((size + 1) * 2 > keys.length) resize(keys.length * 2);
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (used[slot]) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            tileMasks[slot] = tileMask;
+            versions[slot] = version;
+            accessed[slot] = System.nanoTime();
+            used[slot] = true;
+            dirty[slot] = isDirty;
+            size++;
+            if (isDirty) dirtyCount++;
+        }
+
+        void remove(int slot) {
+            int mask = keys.length - 1;
+            if (dirty[slot]) dirtyCount--;
+            used[slot] = false;
+            size--;
+
+            int hole = slot;
+            for (int next = (slot + 1) & mask; used[next]; next = (next + 1) & mask) {
+                int home = mix(keys[next]) & mask;
+                // Move the entry back only if the hole lies between its home slot and where it sits now.
+                if (((next - home) & mask) < ((next - hole) & mask)) continue;
+                keys[hole] = keys[next];
+                tileMasks[hole] = tileMasks[next];
+                versions[hole] = versions[next];
+                accessed[hole] = accessed[next];
+                dirty[hole] = dirty[next];
+                used[hole] = true;
+                used[next] = false;
+                hole = next;
+            }
+        }
+
+        /**
+         * Evicts the least recently accessed clean entry out of a sample of occupied slots, or the
+         * next clean entry after the sample if it held only dirty ones.
+         *
+         * @return `true` if an entry was evicted, `false` if every entry is dirty
+         */
+        boolean evictOne() {
+            if (dirtyCount == size) return false;
+            int mask = keys.length - 1;
+            int victim = -1;
+            int sampled = 0;
+            for (int probe = 0; probe < keys.length && sampled < EVICTION_SAMPLE; probe++) {
+                int slot = evictionCursor;
+                evictionCursor = (evictionCursor + 1) & mask;
+                if (!used[slot]) continue;
+                sampled++;
+                if (dirty[slot]) continue;
+                if (victim < 0 || accessed[slot] < accessed[victim]) victim = slot;
+            }
+            // Some entry is clean, so this ends within one pass over the table.
+            while (victim < 0) {
+                int slot = evictionCursor;
+                evictionCursor = (evictionCursor + 1) & mask;
+                if (used[slot] && !dirty[slot]) victim = slot;
+            }
+            remove(victim);
+            return true;
+        }
+
+        void clear() {
+            keys = new int[16];
+            tileMasks = new int[16];
+            versions = new int[16];
+            accessed = new long[16];
+            used = new boolean[16];
+            dirty = new boolean[16];
+            size = 0;
+            dirtyCount = 0;
+            evictionCursor = 0;
+        }
+
+        private void resize(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldTileMasks = tileMasks;
+            int[] oldVersions = versions;
+            long[] oldAccessed = accessed;
+            boolean[] oldUsed = used;
+            boolean[] oldDirty = dirty;
+
+            keys = new int[capacity];
+            tileMasks = new int[capacity];
+            versions = new int[capacity];
+            accessed = new long[capacity];
+            used = new boolean[capacity];
+            dirty = new boolean[capacity];
+            evictionCursor = 0;
+
+            int mask = capacity - 1;
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (!oldUsed[old]) continue;
+                int slot = mix(oldKeys[old]) & mask;
+                while (used[slot]) slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[old];
+                tileMasks[slot] = oldTileMasks[old];
+                versions[slot] = oldVersions[old];
+                accessed[slot] = oldAccessed[old];
+                used[slot] = true;
+                dirty[slot] = oldDirty[old];
+            }
+        }
+    }
+}
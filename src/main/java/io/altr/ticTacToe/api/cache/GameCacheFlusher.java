@@ -0,0 +1,86 @@
+package io.altr.ticTacToe.api.cache;
+
+import io.altr.ticTacToe.api.repository.GameRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background upkeep of the `GameCache`: flushes dirty games to the repository in batches when
+ * the cache runs in write-behind mode, and evicts idle games.
+ */
+@Component
+public class GameCacheFlusher {
+
+    private final Logger logInfo = LoggerFactory.getLogger(GameCacheFlusher.class);
+    private final GameCache gameCache;
+    // Absent with the stores that run without a DataSource, which never run in write-behind mode.
+    private final ObjectProvider<GameRepository> gameRepository;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final int[] gameIds;
+    private final int[] tileMasks;
+    private final int[] versions;
+
+    @Autowired
+    public GameCacheFlusher(GameCache gameCache, ObjectProvider<GameRepository> gameRepository,
+                            @Value("${tictactoe.cache.flush-batch-size:500}") int batchSize) {
+        this.gameCache = gameCache;
+        this.gameRepository = gameRepository;
+        this.gameIds = new int[batchSize];
+        this.tileMasks = new int[batchSize];
+        this.versions = new int[batchSize];
+    }
+
+
+
+
+
+    /**
+     * Writes every dirty game to the repository, one batch at a time.
+     *
+     * @return the number of games written
+     */
+    @Scheduled(fixedDelayString = "${tictactoe.cache.flush-interval-ms:100}")
+    public int flush() {
+        if (!gameCache.isWriteBehind()) return 0;
+
+        flushLock.lock();
+        try {
+            int flushed = 0;
+            int count;
+            do {
+                count = gameCache.collectDirty(gameIds, tileMasks, versions);
+                if (count == 0) break;
+                gameRepository.getObject().batchUpdateTileMasks(gameIds, tileMasks, versions, count);
+                for (int i = 0; i < count; i++) {
+                    gameCache.markClean(gameIds[i], versions[i]);
+                }
+                flushed += count;
+            } while (count == gameIds.length);
+
+            if (flushed > 0) logInfo.debug("Flushed {} games to the repository", flushed);
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tictactoe.cache.evict-interval-ms:10000}")
+    public void evictIdle() {
+        int evicted = gameCache.evictIdle();
+        if (evicted > 0) logInfo.debug("Evicted {} idle games from the cache", evicted);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
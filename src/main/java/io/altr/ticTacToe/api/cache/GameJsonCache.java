@@ -0,0 +1,70 @@
+package io.altr.ticTacToe.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Pos;
+
+/**
+ * The JSON form of every game state that can come up in play, encoded once.
+ *
+ * A game is fully described by its tileMask, and only 5478 tileMasks can be reached from an empty
+ * board, so all of them are encoded at construction with the given `ObjectMapper`, into a table
+ * indexed by the tileMask. Looking a state up is then a single array read. The bytes are the same
+ * ones the mapper writes for a `Game`, and must not be modified by callers.
+ */
+public class GameJsonCache {
+    private static final int TILE_MASK_COUNT = 1 << 18;
+
+    private final ObjectMapper objectMapper;
+    private final byte[][] jsonByTileMask = new byte[TILE_MASK_COUNT][];
+    private final int size;
+
+    public GameJsonCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.size = encodeReachable(new Game());
+    }
+
+
+
+
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the JSON form of the game with the given tileMask.
+     * A tileMask that can't be reached in play, which only a hand edited database holds, is
+     * encoded anew on every call instead.
+     */
+    public byte[] get(int tileMask) {
+        byte[] json = tileMask >= 0 && tileMask < TILE_MASK_COUNT ? jsonByTileMask[tileMask] : null;
+        return json != null ? json : encode(new Game(tileMask));
+    }
+
+    /**
+     * Encodes the game and every game reachable from it, depth first.
+     *
+     * @return the number of games newly encoded
+     */
+    private int encodeReachable(Game game) {
+        if (jsonByTileMask[game.getTileMask()] != null) return 0;
+        jsonByTileMask[game.getTileMask()] = encode(game);
+
+        int encoded = 1;
+        for (Pos pos : Pos.values()) {
+            Game next = new Game(game.getTileMask());
+            if (next.tryPlace(next.getTurnOf(), pos) == Game.PLACED) encoded += encodeReachable(next);
+        }
+        return encoded;
+    }
+
+    private byte[] encode(Game game) {
+        try {
+            return objectMapper.writeValueAsBytes(game);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Couldn't encode the game with tileMask: " + game.getTileMask(), e);
+        }
+    }
+}
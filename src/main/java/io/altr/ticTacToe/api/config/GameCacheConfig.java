@@ -0,0 +1,59 @@
+package io.altr.ticTacToe.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.cache.GameJsonCache;
+import io.altr.ticTacToe.api.service.GameUpdateRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class GameCacheConfig {
+
+    @Bean
+    public GameCache gameCache(
+            @Value("${tictactoe.cache.max-size:100000}") int maxSize,
+            @Value("${tictactoe.cache.idle-timeout-ms:600000}") long idleTimeoutMillis,
+            @Value("${tictactoe.cache.write-behind:false}") boolean writeBehind) {
+        return new GameCache(maxSize, idleTimeoutMillis, writeBehind);
+    }
+
+    @Bean
+    public GameJsonCache gameJsonCache(ObjectMapper objectMapper) {
+        return new GameJsonCache(objectMapper);
+    }
+
+    /**
+     * Gauges read on scrape, so the caches pay nothing per request for them. Games idle for longer
+     * than the idle timeout are evicted from the `GameCache`, so the games it holds are the active ones.
+     */
+    @Bean
+    public MeterBinder gameCacheMetrics(GameCache gameCache, GameJsonCache gameJsonCache, GameUpdateRegistry gameUpdates) {
+        return meterRegistry -> {
+            Gauge.builder("tictactoe.games.active", gameCache, GameCache::size)
+                    .description("Games used within the idle timeout of the game cache")
+                    .register(meterRegistry);
+            Gauge.builder("tictactoe.games.watched", gameUpdates, GameUpdateRegistry::watchedGameCount)
+                    .description("Games with at least one listener")
+                    .register(meterRegistry);
+            Gauge.builder("tictactoe.cache.dirty", gameCache, GameCache::dirtyCount)
+                    .description("Games in the game cache not yet written to the repository")
+                    .register(meterRegistry);
+            Gauge.builder("tictactoe.cache.json.size", gameJsonCache, GameJsonCache::size)
+                    .description("Games held pre-encoded in the JSON cache")
+                    .register(meterRegistry);
+            FunctionCounter.builder("tictactoe.cache.hits", gameCache, GameCache::getHitCount)
+                    .register(meterRegistry);
+            FunctionCounter.builder("tictactoe.cache.misses", gameCache, GameCache::getMissCount)
+                    .register(meterRegistry);
+            FunctionCounter.builder("tictactoe.cache.evictions", gameCache, GameCache::getEvictionCount)
+                    .register(meterRegistry);
+        };
+    }
+}
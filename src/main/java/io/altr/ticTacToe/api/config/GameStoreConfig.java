@@ -0,0 +1,35 @@
+package io.altr.ticTacToe.api.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Refuses to start with a `GameStore` that only `GameServiceImpl` writes through, together with a
+ * mode that writes the `game_entity` table on its own:
+ *
+ * - write-behind, where the `GameCacheFlusher` writes the cached games to the `GameRepository`
+ * - the "reactive" profile, where `ReactiveGameServiceImpl` reads and writes games over R2DBC
+ *
+ * Either would leave the store behind the games the clients see.
+ */
+@Configuration
+public class GameStoreConfig {
+    // The profiles of the stores that must see every write.
+    static final String[] SERVICE_ONLY_STORES = {"events", "journal", "memory"};
+
+    @Autowired
+    public GameStoreConfig(Environment environment,
+                           @Value("${tictactoe.cache.write-behind:false}") boolean writeBehind) {
+        for (String store : SERVICE_ONLY_STORES) {
+            if (!environment.matchesProfiles(store)) continue;
+            if (writeBehind) {
+                throw new IllegalStateException("The \"" + store + "\" profile can't be used with tictactoe.cache.write-behind=true.");
+            }
+            if (environment.matchesProfiles("reactive")) {
+                throw new IllegalStateException("The \"" + store + "\" profile can't be combined with the \"reactive\" profile.");
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.altr.ticTacToe.api.config;
+
+import io.altr.ticTacToe.api.cache.GameJsonCache;
+import io.altr.ticTacToe.api.converter.GameBinaryMessageConverter;
+import io.altr.ticTacToe.api.converter.GameJsonMessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@Profile("!reactive")
+public class WebConfig implements WebMvcConfigurer {
+
+    private final GameJsonCache gameJsonCache;
+
+    @Autowired
+    public WebConfig(GameJsonCache gameJsonCache) {
+        this.gameJsonCache = gameJsonCache;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Games are written from the JSON cache ahead of Jackson, which still writes everything else.
+        int jackson = 0;
+        while (jackson < converters.size() && !(converters.get(jackson) instanceof MappingJackson2HttpMessageConverter)) {
+            jackson++;
+        }
+        converters.add(jackson, new GameJsonMessageConverter(gameJsonCache));
+
+        // Added after Jackson, so JSON stays the answer to clients that accept anything.
+        converters.add(new GameBinaryMessageConverter());
+    }
+}
@@ -1,25 +1,53 @@
 package io.altr.ticTacToe.api.controller;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.altr.ticTacToe.api.converter.GameBinaryMessageConverter;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.dto.PlaceResult;
 import io.altr.ticTacToe.api.entity.GameEntity;
 import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdate;
+import io.altr.ticTacToe.api.service.GameUpdateListener;
 import io.altr.ticTacToe.engine.Game;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api")
+@Profile("!reactive")
 public class GameController {
 
+    // Updates a stream can fall behind by before it is ended.
+    private static final int SSE_QUEUE_CAPACITY = 16;
+
     private final Logger logInfo = LoggerFactory.getLogger(GameController.class);
     private final GameService gameService;
+    private final Executor sseExecutor;
+    private final long sseTimeoutMillis;
+    private final long longPollTimeoutMillis;
 
     @Autowired
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService,
+                          @Qualifier("applicationTaskExecutor") Executor sseExecutor,
+                          @Value("${tictactoe.watch.sse-timeout-ms:1800000}") long sseTimeoutMillis,
+                          @Value("${tictactoe.watch.long-poll-timeout-ms:30000}") long longPollTimeoutMillis) {
         this.gameService = gameService;
+        this.sseExecutor = sseExecutor;
+        this.sseTimeoutMillis = sseTimeoutMillis;
+        this.longPollTimeoutMillis = longPollTimeoutMillis;
     }
 
 
@@ -41,7 +69,7 @@ public class GameController {
     @PostMapping("/newGame")
     public ResponseEntity<GameEntity> createGame() {
         GameEntity ge = gameService.createNewGame();
-        logInfo.info("New Game created with gameId: {}", ge.getGameId());
+        logInfo.debug("New Game created with gameId: {}", ge.getGameId());
         return ResponseEntity.ok(ge);
     }
 
@@ -49,6 +77,32 @@ public class GameController {
 
 
 
+    /**
+     * Creates the given number of new Tic-Tac-Toe games at once and returns their gameIds.
+     * This endpoint consumes no JSON.
+     * <br>Sample request: <code>POST /api/newGames?count=3</code>
+     * <br>Sample response JSON:
+     * <pre>
+     * [
+     *     {"gameId": 1},
+     *     {"gameId": 2},
+     *     {"gameId": 3}
+     * ]
+     * </pre>
+     *
+     * @param count the number of games to create, at most 10000
+     * @return ResponseEntity containing the GameEntities of the newly created games, or an error.
+     */
+    @PostMapping("/newGames")
+    public ResponseEntity<List<GameEntity>> createGames(@RequestParam Integer count) {
+        logInfo.debug("Creation of {} new games requested", count);
+        return ResponseEntity.ok(gameService.createNewGames(count));
+    }
+
+
+
+
+
     /**
      * Restarts the game with the specified gameId and returns the new game state in JSON format.
      * This endpoint consumes no JSON.
@@ -76,7 +130,7 @@ public class GameController {
      */
     @PutMapping("/{gameId}/restart")
     public ResponseEntity<Game> restartGame(@PathVariable Integer gameId) {
-        logInfo.info("Restart game requested for gameId: {}", gameId);
+        logInfo.debug("Restart game requested for gameId: {}", gameId);
         return ResponseEntity.ok(gameService.restartGame(gameId));
     }
 
@@ -86,14 +140,123 @@ public class GameController {
 
     /**
      * Retrieves the current state of the game with the given gameId in JSON format.
+     * Clients that accept `application/x-tictactoe` get the game in 3 bytes instead,
+     * as written by `GameBinaryMessageConverter`. The same goes for the restart and place endpoints.
+     * The response has a strong ETag made of the gameId and the version of the game, so a client
+     * polling with If-None-Match gets 304 Not Modified and no body until the game changes.
+     * The version is read from the game cache, so a hot game is checked without a query.
+     * <br>Sample response headers:
+     * <pre>
+     * ETag: "1-3"
+     * Cache-Control: no-cache
+     * </pre>
      *
      * @param gameId the ID of the game to retrieve
-     * @return ResponseEntity containing the game state, or an error.
+     * @return ResponseEntity containing the game state, 304 Not Modified, or an error.
      */
     @GetMapping("/{gameId}")
     public ResponseEntity<Game> getGame(@PathVariable Integer gameId) {
-        logInfo.info("Get game requested for gameId: {}", gameId);
-        return ResponseEntity.ok(gameService.getGame(gameId));
+        logInfo.debug("Get game requested for gameId: {}", gameId);
+        return toConditionalResponse(gameService.getGameUpdate(gameId), "");
+    }
+
+    /**
+     * Same as `getGame`, for clients that prefer the binary form. Its ETag differs from the JSON
+     * one, as the body does.
+     *
+     * @param gameId the ID of the game to retrieve
+     * @return ResponseEntity containing the game state, 304 Not Modified, or an error.
+     */
+    @GetMapping(value = "/{gameId}", produces = GameBinaryMessageConverter.APPLICATION_TICTACTOE_VALUE)
+    public ResponseEntity<Game> getGameBinary(@PathVariable Integer gameId) {
+        logInfo.debug("Get game requested for gameId: {}", gameId);
+        return toConditionalResponse(gameService.getGameUpdate(gameId), "-b");
+    }
+
+    private static ResponseEntity<Game> toConditionalResponse(GameUpdate gameUpdate, String representation) {
+        // Spring answers a 200 whose ETag matches If-None-Match with 304, and skips writing the body.
+        return ResponseEntity.ok()
+                .eTag("\"" + gameUpdate.getGameId() + "-" + gameUpdate.getVersion() + representation + "\"")
+                .cacheControl(CacheControl.noCache())
+                .body(gameUpdate.getGame());
+    }
+
+
+
+
+
+    /**
+     * Waits until the game with the given gameId has a newer version than the given one, and returns
+     * its state together with the new version. Answers at once if the game is already newer.
+     * The request is held asynchronously, without a thread, until the game changes or the long-poll
+     * timeout passes, in which case the response is 304 Not Modified and the client should ask again.
+     * <br>Sample request: <code>GET /api/1?sinceVersion=2</code>
+     * <br>Sample response JSON:
+     * <pre>
+     * {
+     *     "gameId": 1,
+     *     "version": 3,
+     *     "game": {
+     *         "whoWon": "NONE",
+     *         "turnOf": "O",
+     *         "board": [...]
+     *     }
+     * }
+     * </pre>
+     *
+     * @param gameId the ID of the game to wait for
+     * @param sinceVersion the latest version of the game the client has
+     * @return DeferredResult completed with the newer game state, 304 Not Modified, or an error.
+     */
+    @GetMapping(value = "/{gameId}", params = "sinceVersion")
+    public DeferredResult<ResponseEntity<String>> awaitGame(@PathVariable Integer gameId, @RequestParam int sinceVersion) {
+        DeferredResult<ResponseEntity<String>> deferredResult = new DeferredResult<>(
+                longPollTimeoutMillis, () -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        GameUpdateListener listener = gameUpdate -> {
+            if (gameUpdate.getVersion() > sinceVersion) deferredResult.setResult(toResponse(gameUpdate));
+        };
+        GameUpdate current = gameService.watchGame(gameId, listener);
+        deferredResult.onCompletion(() -> gameService.unwatchGame(gameId, listener));
+        listener.onUpdate(current);
+        return deferredResult;
+    }
+
+
+
+
+
+    /**
+     * Streams the state of the game with the given gameId as Server-Sent Events.
+     * The current state is sent first, then the new state after every move and restart, as "game"
+     * events with the version of the game as event id, in the same JSON form as `awaitGame` returns.
+     * The stream holds no thread while it waits, and ends after the SSE timeout, or when the client
+     * falls too far behind, after which the client should reconnect. Events are sent from the task
+     * executor, never from the thread that made the move.
+     * <br>Sample event:
+     * <pre>
+     * id:3
+     * event:game
+     * data:{"gameId":1,"version":3,"game":{"whoWon":"NONE","turnOf":"O","board":[...]}}
+     * </pre>
+     *
+     * @param gameId the ID of the game to stream
+     * @return SseEmitter sending the states of the game, or an error.
+     */
+    @GetMapping(value = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGame(@PathVariable Integer gameId) {
+        logInfo.debug("Event stream requested for gameId: {}", gameId);
+        SseEmitter sseEmitter = new SseEmitter(sseTimeoutMillis);
+
+        GameUpdateListener listener = new SseEventQueue(sseEmitter, sseExecutor, SSE_QUEUE_CAPACITY);
+        GameUpdate current = gameService.watchGame(gameId, listener);
+        sseEmitter.onCompletion(() -> gameService.unwatchGame(gameId, listener));
+        listener.onUpdate(current);
+        return sseEmitter;
+    }
+
+    private static ResponseEntity<String> toResponse(GameUpdate gameUpdate) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(gameUpdate.toJson());
     }
 
 
@@ -108,7 +271,7 @@ public class GameController {
      */
     @DeleteMapping("/{gameId}/delete")
     public ResponseEntity<GameEntity> deleteGame(@PathVariable Integer gameId) {
-        logInfo.info("Delete game requested for gameId: {}", gameId);
+        logInfo.debug("Delete game requested for gameId: {}", gameId);
         return ResponseEntity.ok(gameService.deleteGame(gameId));
     }
 
@@ -126,6 +289,7 @@ public class GameController {
      *     "pos": "a1"
      * }
      * </pre>
+     * The move can also be sent as the 2 bytes of `application/x-tictactoe`, the mark code and the position.
      * <br>Sample response JSON (after mark placement):
      * <pre>
      * {
@@ -146,12 +310,47 @@ public class GameController {
      * </pre>
      *
      * @param gameId the ID of the game where the mark is to be placed
-     * @param objectNode JSON object containing the mark and position fields
+     * @param placeRequest the mark and position fields, read by `PlaceRequestDeserializer`
      * @return ResponseEntity containing the updated game state after the mark is placed, or an error.
      */
     @PutMapping("/{gameId}/place")
-    public ResponseEntity<Game> doPlace(@PathVariable Integer gameId, @RequestBody ObjectNode objectNode) {
-        logInfo.info("Place requested for gameId: {}", gameId);
-        return ResponseEntity.ok(gameService.placeInGame(gameId, objectNode));
+    public ResponseEntity<Game> doPlace(@PathVariable Integer gameId, @RequestBody PlaceRequest placeRequest) {
+        logInfo.debug("Place requested for gameId: {}", gameId);
+        return ResponseEntity.ok(gameService.placeInGame(gameId, placeRequest));
+    }
+
+
+
+
+
+    /**
+     * Places many marks, across one or more games, in a single request.
+     * Moves are applied per game in the order given, and all changed games are saved together.
+     * A rejected move doesn't stop the rest of the batch, so the response always has one result
+     * per move, in the order of the request.
+     * <br>Sample request JSON:
+     * <pre>
+     * [
+     *     {"gameId": 1, "mark": "X", "pos": "a1"},
+     *     {"gameId": 2, "mark": "O", "pos": "b2"},
+     *     {"gameId": 1, "mark": "O", "pos": "a1"}
+     * ]
+     * </pre>
+     * <br>Sample response JSON (game states shortened):
+     * <pre>
+     * [
+     *     {"gameId": 1, "placed": true, "message": null, "game": {...}},
+     *     {"gameId": 2, "placed": false, "message": "Can't place the mark of: \"O\" now. It's not your turn.", "game": {...}},
+     *     {"gameId": 1, "placed": false, "message": "Pos: \"a1\" is already taken.", "game": {...}}
+     * ]
+     * </pre>
+     *
+     * @param placeRequests the gameId, mark and position fields of each move
+     * @return ResponseEntity containing one result per move.
+     */
+    @PutMapping("/place")
+    public ResponseEntity<List<PlaceResult>> doPlaceBatch(@RequestBody List<PlaceRequest> placeRequests) {
+        logInfo.debug("Batch place requested for {} moves", placeRequests.size());
+        return ResponseEntity.ok(gameService.placeInGames(placeRequests));
     }
 }
@@ -0,0 +1,168 @@
+package io.altr.ticTacToe.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.exception.FieldNameException;
+import io.altr.ticTacToe.api.exception.GameNotFoundException;
+import io.altr.ticTacToe.api.exception.GameStateException;
+import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdate;
+import io.altr.ticTacToe.api.service.GameUpdateListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * WebSocket endpoint for watching and playing games without polling.
+ * Every message is a JSON object with a "type" field:
+ * <pre>
+ * {"type": "subscribe", "gameId": 1}
+ * {"type": "unsubscribe", "gameId": 1}
+ * {"type": "place", "gameId": 1, "mark": "X", "pos": "a1"}
+ * </pre>
+ * After a subscribe, the session first gets the current state of the game, and then the new
+ * state after every move and restart, in the JSON form of `GameUpdate`. An update can overtake
+ * the first state, so clients should ignore states with a lower version than one already seen.
+ * A place also subscribes the session to the game, so its result arrives as an update.
+ * Messages are sent from the task executor, never from the thread that made the move, and a
+ * session that falls too far behind is closed, after which the client should reconnect.
+ * A rejected message is answered only to its session:
+ * <pre>
+ * {"gameId": 1, "error": "Pos: \"a1\" is already taken."}
+ * </pre>
+ */
+@Component
+@Profile("!reactive")
+public class GameSocketHandler extends TextWebSocketHandler {
+    private static final String SUBSCRIBER = "subscriber";
+    // Per session, across all its games.
+    private static final int SEND_QUEUE_CAPACITY = 64;
+
+    private final Logger logInfo = LoggerFactory.getLogger(GameSocketHandler.class);
+    private final GameService gameService;
+    private final ObjectMapper objectMapper;
+    private final Executor sendExecutor;
+
+    @Autowired
+    public GameSocketHandler(GameService gameService, ObjectMapper objectMapper,
+                             @Qualifier("applicationTaskExecutor") Executor sendExecutor) {
+        this.gameService = gameService;
+        this.objectMapper = objectMapper;
+        this.sendExecutor = sendExecutor;
+    }
+
+
+
+
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        SocketMessageQueue messages = new SocketMessageQueue(session, sendExecutor, SEND_QUEUE_CAPACITY);
+        session.getAttributes().put(SUBSCRIBER, new Subscriber(messages));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Subscriber subscriber = subscriberOf(session);
+        for (Integer gameId : subscriber.gameIds) {
+            gameService.unwatchGame(gameId, subscriber);
+        }
+        subscriber.gameIds.clear();
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Subscriber subscriber = subscriberOf(session);
+        ObjectNode objectNode;
+        try {
+            objectNode = objectMapper.readValue(message.getPayload(), ObjectNode.class);
+        } catch (JsonProcessingException e) {
+            subscriber.sendError(null, "Message is not a JSON object.");
+            return;
+        }
+
+        JsonNode gameIdNode = objectNode.get("gameId");
+        if (gameIdNode == null || !gameIdNode.canConvertToInt()) {
+            subscriber.sendError(null, "Given JSON has no \"gameId\" field.");
+            return;
+        }
+        Integer gameId = gameIdNode.asInt();
+
+        try {
+            switch (objectNode.path("type").asText()) {
+                case "subscribe" -> subscribe(subscriber, gameId);
+                case "unsubscribe" -> unsubscribe(subscriber, gameId);
+                case "place" -> {
+                    subscribe(subscriber, gameId);
+                    gameService.placeInGame(gameId, objectMapper.convertValue(objectNode, PlaceRequest.class));
+                }
+                default -> subscriber.sendError(gameId, "Json field: \"type\" should be: \"subscribe\", \"unsubscribe\" or \"place\".");
+            }
+        } catch (GameNotFoundException | GameStateException | FieldNameException e) {
+            subscriber.sendError(gameId, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            subscriber.sendError(gameId, "Game was changed by another request in the meantime. Get the game and try again.");
+        }
+    }
+
+    private void subscribe(Subscriber subscriber, Integer gameId) {
+        if (!subscriber.gameIds.add(gameId)) return;
+        GameUpdate current;
+        try {
+            current = gameService.watchGame(gameId, subscriber);
+        } catch (GameNotFoundException e) {
+            subscriber.gameIds.remove(gameId);
+            throw e;
+        }
+        subscriber.onUpdate(current);
+        logInfo.debug("Socket subscribed to game with gameId: {}", gameId);
+    }
+
+    private void unsubscribe(Subscriber subscriber, Integer gameId) {
+        if (subscriber.gameIds.remove(gameId)) gameService.unwatchGame(gameId, subscriber);
+    }
+
+    private static Subscriber subscriberOf(WebSocketSession session) {
+        return (Subscriber) session.getAttributes().get(SUBSCRIBER);
+    }
+
+
+
+
+
+    private final class Subscriber implements GameUpdateListener {
+        final SocketMessageQueue messages;
+        final Set<Integer> gameIds = ConcurrentHashMap.newKeySet();
+
+        Subscriber(SocketMessageQueue messages) {
+            this.messages = messages;
+        }
+
+        @Override
+        public void onUpdate(GameUpdate gameUpdate) {
+            messages.offer(gameUpdate.toJson());
+        }
+
+        void sendError(Integer gameId, String error) {
+            ObjectNode objectNode = objectMapper.createObjectNode();
+            objectNode.put("gameId", gameId);
+            objectNode.put("error", error);
+            messages.offer(objectNode.toString());
+        }
+    }
+}
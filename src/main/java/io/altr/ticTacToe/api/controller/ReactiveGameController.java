@@ -0,0 +1,72 @@
+package io.altr.ticTacToe.api.controller;
+
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.api.service.ReactiveGameService;
+import io.altr.ticTacToe.engine.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux variant of `GameController`, active with the Spring profile "reactive".
+ * Serves the same paths with the same request and response JSON; see `GameController` for samples.
+ */
+@RestController
+@RequestMapping("/api")
+@Profile("reactive")
+public class ReactiveGameController {
+
+    private final Logger logInfo = LoggerFactory.getLogger(ReactiveGameController.class);
+    private final ReactiveGameService gameService;
+
+    @Autowired
+    public ReactiveGameController(ReactiveGameService gameService) {
+        this.gameService = gameService;
+    }
+
+
+
+
+
+    @PostMapping("/newGame")
+    public Mono<GameEntity> createGame() {
+        return gameService.createNewGame()
+                .doOnNext(ge -> logInfo.debug("New Game created with gameId: {}", ge.getGameId()));
+    }
+
+    @PostMapping("/newGames")
+    public Mono<List<GameEntity>> createGames(@RequestParam Integer count) {
+        logInfo.debug("Creation of {} new games requested", count);
+        return gameService.createNewGames(count);
+    }
+
+    @PutMapping("/{gameId}/restart")
+    public Mono<Game> restartGame(@PathVariable Integer gameId) {
+        logInfo.debug("Restart game requested for gameId: {}", gameId);
+        return gameService.restartGame(gameId);
+    }
+
+    @GetMapping("/{gameId}")
+    public Mono<Game> getGame(@PathVariable Integer gameId) {
+        logInfo.debug("Get game requested for gameId: {}", gameId);
+        return gameService.getGame(gameId);
+    }
+
+    @DeleteMapping("/{gameId}/delete")
+    public Mono<GameEntity> deleteGame(@PathVariable Integer gameId) {
+        logInfo.debug("Delete game requested for gameId: {}", gameId);
+        return gameService.deleteGame(gameId);
+    }
+
+    @PutMapping("/{gameId}/place")
+    public Mono<Game> doPlace(@PathVariable Integer gameId, @RequestBody PlaceRequest placeRequest) {
+        logInfo.debug("Place requested for gameId: {}", gameId);
+        return gameService.placeInGame(gameId, placeRequest);
+    }
+}
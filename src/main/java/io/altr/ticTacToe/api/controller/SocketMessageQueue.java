@@ -0,0 +1,85 @@
+package io.altr.ticTacToe.api.controller;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The messages waiting to be sent to one WebSocket session.
+ *
+ * `WebSocketSession.sendMessage` blocks while the client is slow to read, and can't be called by
+ * several threads at once, so the threads that publish updates and answer messages only queue
+ * them, and the sends are made by one task at a time on the executor, like `SseEventQueue` does.
+ * A session that falls `capacity` messages behind is closed instead, and the client should
+ * reconnect and subscribe again.
+ */
+class SocketMessageQueue {
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final ArrayBlockingQueue<String> pending;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean overflowed;
+
+    SocketMessageQueue(WebSocketSession session, Executor executor, int capacity) {
+        this.session = session;
+        this.executor = executor;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void offer(String json) {
+        if (!pending.offer(json)) overflowed = true;
+        if (draining.compareAndSet(false, true)) executor.execute(this::drain);
+    }
+
+    /**
+     * Sends the queued messages in order. Once the session is closed, `draining` stays set, so no
+     * more tasks are scheduled for it.
+     */
+    private void drain() {
+        do {
+            if (overflowed) {
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+                return;
+            }
+            String json;
+            while (!overflowed && (json = pending.poll()) != null) {
+                if (!send(json)) return;
+            }
+            draining.set(false);
+            // A message queued after the last poll, but before the flag was cleared, is drained here.
+        } while ((!pending.isEmpty() || overflowed) && draining.compareAndSet(false, true));
+    }
+
+    /**
+     * @return whether the session is still open
+     */
+    private boolean send(String json) {
+        if (!session.isOpen()) {
+            pending.clear();
+            return false;
+        }
+        try {
+            session.sendMessage(new TextMessage(json));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away. Closing unsubscribes the session from its games.
+            close(CloseStatus.SERVER_ERROR);
+            return false;
+        }
+    }
+
+    private void close(CloseStatus status) {
+        pending.clear();
+        try {
+            session.close(status);
+        } catch (IOException ignored) {
+            // Already closed.
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.altr.ticTacToe.api.controller;
+
+import io.altr.ticTacToe.api.service.GameUpdate;
+import io.altr.ticTacToe.api.service.GameUpdateListener;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The updates of one game waiting to be sent to one SSE stream.
+ *
+ * `SseEmitter.send` writes to the response, and blocks while the client is slow to read, so the
+ * listener only queues the update, and the sends are made by one task at a time on the executor.
+ * A client that falls `capacity` updates behind gets its stream ended instead, and reconnecting
+ * gets it the current state, like `streamGame` documents.
+ *
+ * Updates are published without a lock, and the current state is queued after the listener is
+ * registered, so an update can arrive after a newer one. Only updates newer than every one
+ * before them are sent: stale ones are dropped when queued, and again when sent, for those that
+ * raced past each other into the queue.
+ */
+class SseEventQueue implements GameUpdateListener {
+
+    private final SseEmitter sseEmitter;
+    private final Executor executor;
+    private final ArrayBlockingQueue<GameUpdate> pending;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicInteger queuedVersion = new AtomicInteger(-1);
+    // Only touched by the draining task.
+    private int sentVersion = -1;
+    private volatile boolean overflowed;
+
+    SseEventQueue(SseEmitter sseEmitter, Executor executor, int capacity) {
+        this.sseEmitter = sseEmitter;
+        this.executor = executor;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void onUpdate(GameUpdate gameUpdate) {
+        int version = gameUpdate.getVersion();
+        if (queuedVersion.getAndAccumulate(version, Math::max) >= version) return;
+        // The emitter is only touched by the draining task, which may be blocked in a send.
+        if (!pending.offer(gameUpdate)) overflowed = true;
+        if (draining.compareAndSet(false, true)) executor.execute(this::drain);
+    }
+
+    /**
+     * Sends the queued updates in order. Once the stream is ended, `draining` stays set, so no more
+     * tasks are scheduled for it.
+     */
+    private void drain() {
+        do {
+            if (overflowed) {
+                pending.clear();
+                sseEmitter.complete();
+                return;
+            }
+            GameUpdate gameUpdate;
+            while (!overflowed && (gameUpdate = pending.poll()) != null) {
+                if (gameUpdate.getVersion() <= sentVersion) continue;
+                sentVersion = gameUpdate.getVersion();
+                if (!send(gameUpdate)) return;
+            }
+            draining.set(false);
+            // An update queued after the last poll, but before the flag was cleared, is drained here.
+        } while ((!pending.isEmpty() || overflowed) && draining.compareAndSet(false, true));
+    }
+
+    /**
+     * @return whether the stream is still open
+     */
+    private boolean send(GameUpdate gameUpdate) {
+        try {
+            sseEmitter.send(SseEmitter.event()
+                    .id(String.valueOf(gameUpdate.getVersion()))
+                    .name("game")
+                    .data(gameUpdate.toJson(), MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, or the stream has already ended. Completion unregisters the listener.
+            pending.clear();
+            sseEmitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.altr.ticTacToe.api.converter;
+
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Pos;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads and writes the compact binary form of the API, media type `application/x-tictactoe`,
+ * for clients that ask for it with the Accept and Content-Type headers.
+ *
+ * A game is written as 3 bytes, one big-endian 24-bit value:
+ * <pre>
+ *     bits 23-22 | 21-20  | 19-18  | 17-0
+ *     unused     | turnOf | whoWon | tileMask
+ * </pre>
+ * Marks use the same 2-bit codes as the tileMask: 0 for NONE, 1 for X and 2 for O.
+ *
+ * A move request is 2 bytes, the mark code and the board position (0-8, where 8 is `a3` and 0 is
+ * `c1`). It's read into the same `PlaceRequest` a JSON move request is, so the move goes through
+ * the same checks and is rejected with the same errors.
+ */
+public class GameBinaryMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final String APPLICATION_TICTACTOE_VALUE = "application/x-tictactoe";
+    public static final MediaType APPLICATION_TICTACTOE = MediaType.valueOf(APPLICATION_TICTACTOE_VALUE);
+    public static final int GAME_LENGTH = 3;
+    public static final int MOVE_LENGTH = 2;
+
+    public GameBinaryMessageConverter() {
+        super(APPLICATION_TICTACTOE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Game.class.isAssignableFrom(clazz) || clazz == PlaceRequest.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == PlaceRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return Game.class.isAssignableFrom(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Long getContentLength(Object object, MediaType contentType) {
+        return (long) GAME_LENGTH;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        InputStream body = inputMessage.getBody();
+        byte[] move = body.readNBytes(MOVE_LENGTH + 1);
+        if (move.length != MOVE_LENGTH) {
+            throw new HttpMessageNotReadableException("A move should be " + MOVE_LENGTH + " bytes long.", inputMessage);
+        }
+
+        // The ordinals of Mark are its codes. A code out of range makes the request INVALID.
+        int mark = move[0] >= 0 ? move[0] : PlaceRequest.INVALID;
+        int pos = move[1] >= 0 && move[1] <= 8 ? Pos.fromVal(move[1]).ordinal() : PlaceRequest.INVALID;
+        return new PlaceRequest(null, mark, pos);
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(encode((Game) object));
+    }
+
+    /**
+     * Encodes the game into its 3 byte form.
+     */
+    public static byte[] encode(Game game) {
+        // The ordinals of Mark are its 2-bit codes.
+        int packed = game.getTurnOf().ordinal() << 20 | game.getWhoWon().ordinal() << 18 | game.getTileMask();
+        return new byte[]{(byte) (packed >> 16), (byte) (packed >> 8), (byte) packed};
+    }
+}
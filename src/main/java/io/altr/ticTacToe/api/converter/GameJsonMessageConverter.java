@@ -0,0 +1,51 @@
+package io.altr.ticTacToe.api.converter;
+
+import io.altr.ticTacToe.api.cache.GameJsonCache;
+import io.altr.ticTacToe.engine.Game;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes a `Game` as JSON by copying its pre-encoded bytes out of the `GameJsonCache`, so no game
+ * response goes through Jackson. The output is byte for byte what Jackson writes for it.
+ * Only writes, request bodies are left to Jackson.
+ */
+public class GameJsonMessageConverter extends AbstractHttpMessageConverter<Game> {
+
+    private final GameJsonCache gameJsonCache;
+
+    public GameJsonMessageConverter(GameJsonCache gameJsonCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.gameJsonCache = gameJsonCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Game.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Long getContentLength(Game game, MediaType contentType) {
+        return (long) gameJsonCache.get(game.getTileMask()).length;
+    }
+
+    @Override
+    protected Game readInternal(Class<? extends Game> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Games are not read from JSON.", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Game game, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(gameJsonCache.get(game.getTileMask()));
+    }
+}
@@ -0,0 +1,33 @@
+package io.altr.ticTacToe.api.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+
+/**
+ * A request to place a mark, as read by `PlaceRequestDeserializer`.
+ * The mark and the position are kept as the ordinals of `Mark` and `Pos`, or as `MISSING` or
+ * `INVALID` when the request has no usable value for them, so a bad request is told apart
+ * without throwing anything while it's parsed.
+ *
+ * @param gameId the ID of the game the move is meant for, or null if the request has none
+ * @param mark the ordinal of the mark to place, `MISSING` or `INVALID`
+ * @param pos the ordinal of the position to place the mark at, `MISSING` or `INVALID`
+ */
+@JsonDeserialize(using = PlaceRequestDeserializer.class)
+public record PlaceRequest(Integer gameId, int mark, int pos) {
+    public static final int MISSING = -1;
+    public static final int INVALID = -2;
+
+    private static final int MARK_COUNT = Mark.values().length;
+    private static final int POS_COUNT = Pos.values().length;
+
+    public PlaceRequest {
+        if (mark != MISSING && (mark < 0 || mark >= MARK_COUNT)) mark = INVALID;
+        if (pos != MISSING && (pos < 0 || pos >= POS_COUNT)) pos = INVALID;
+    }
+
+    public static PlaceRequest of(Mark mark, Pos pos) {
+        return new PlaceRequest(null, mark.ordinal(), pos.ordinal());
+    }
+}
@@ -0,0 +1,77 @@
+package io.altr.ticTacToe.api.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a `PlaceRequest` straight off the token stream, without building a JSON tree.
+ * The "mark" and "pos" strings are matched against the characters in the parser's buffer and
+ * turned into ordinals, so reading allocates nothing but the request, and a missing or wrong
+ * value is recorded in it rather than thrown. Other fields are skipped.
+ * Only input that isn't a JSON object fails, like it did with `ObjectNode`.
+ */
+public class PlaceRequestDeserializer extends StdDeserializer<PlaceRequest> {
+
+    public PlaceRequestDeserializer() {
+        super(PlaceRequest.class);
+    }
+
+    @Override
+    public PlaceRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (PlaceRequest) context.handleUnexpectedToken(PlaceRequest.class, parser);
+        }
+
+        Integer gameId = null;
+        int mark = PlaceRequest.MISSING;
+        int pos = PlaceRequest.MISSING;
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "gameId" -> gameId = token == JsonToken.VALUE_NUMBER_INT
+                        && parser.getNumberType() == JsonParser.NumberType.INT ? parser.getIntValue() : null;
+                case "mark" -> mark = token == JsonToken.VALUE_STRING ? markOf(parser) : PlaceRequest.INVALID;
+                case "pos" -> pos = token == JsonToken.VALUE_STRING ? posOf(parser) : PlaceRequest.INVALID;
+                default -> { }
+            }
+            parser.skipChildren();
+        }
+        return new PlaceRequest(gameId, mark, pos);
+    }
+
+    /**
+     * Matches the current string against the names of `Mark`: "NONE", "X" and "O".
+     */
+    private static int markOf(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length == 1) {
+            if (text[offset] == 'X') return 1;
+            if (text[offset] == 'O') return 2;
+        } else if (length == 4 && text[offset] == 'N' && text[offset + 1] == 'O'
+                && text[offset + 2] == 'N' && text[offset + 3] == 'E') {
+            return 0;
+        }
+        return PlaceRequest.INVALID;
+    }
+
+    /**
+     * Matches the current string against the names of `Pos`, "a3" to "c1". Their ordinals run
+     * row by row from the top left, so the ordinal follows from the column letter and row digit.
+     */
+    private static int posOf(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (parser.getTextLength() != 2) return PlaceRequest.INVALID;
+
+        int column = text[offset] - 'a';
+        int row = text[offset + 1] - '1';
+        if (column < 0 || column > 2 || row < 0 || row > 2) return PlaceRequest.INVALID;
+        return (2 - row) * 3 + column;
+    }
+}
@@ -0,0 +1,22 @@
+package io.altr.ticTacToe.api.dto;
+
+import io.altr.ticTacToe.engine.Game;
+
+/**
+ * The outcome of one move out of a batch of moves.
+ *
+ * @param gameId the ID of the game the move was meant for, or null if the move had none
+ * @param placed whether the mark was placed
+ * @param message why the move was rejected, or null if it was placed
+ * @param game the state of the game right after the move, or null if the game couldn't be read or written
+ */
+public record PlaceResult(Integer gameId, boolean placed, String message, Game game) {
+
+    public static PlaceResult placed(Integer gameId, Game game) {
+        return new PlaceResult(gameId, true, null, game);
+    }
+
+    public static PlaceResult rejected(Integer gameId, String message, Game game) {
+        return new PlaceResult(gameId, false, message, game);
+    }
+}
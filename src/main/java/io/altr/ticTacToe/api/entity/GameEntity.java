@@ -5,14 +5,27 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
 @Entity
 public class GameEntity {
+    /**
+     * How many gameIds are taken from the sequence at once. With the pooled-lo optimizer the
+     * sequence is hit once per block, and the ids within a block are handed out in memory.
+     * On databases without sequences, like MySQL, Hibernate keeps the sequence in a table.
+     */
+    public static final int ID_BLOCK_SIZE = 1000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_id")
+    @SequenceGenerator(name = "game_id", sequenceName = "game_id_seq", allocationSize = ID_BLOCK_SIZE)
     private Integer gameId;
     @JsonIgnore
     private Integer tileMask;
+    @Version
+    @JsonIgnore
+    private Integer version;
 
     public GameEntity(Integer gameId, Integer tileMask){
         this.gameId = gameId;
@@ -35,6 +48,14 @@ public class GameEntity {
         return tileMask;
     }
 
+    public void setTileMask(Integer tileMask){
+        this.tileMask = tileMask;
+    }
+
+    public Integer getVersion(){
+        return version;
+    }
+
 
     @Override
     public boolean equals(Object obj) {
@@ -0,0 +1,81 @@
+package io.altr.ticTacToe.api.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One move of a game, as appended to the move log of the Spring profile "events". Rows are only
+ * ever inserted: the moves of a game are numbered by `sequence` from 1, and the sequence of the
+ * last move is the version of the game. A restart is logged as a move without a mark.
+ */
+@Entity
+@IdClass(MoveEventEntity.Key.class)
+public class MoveEventEntity {
+
+    @Id
+    private Integer gameId;
+    @Id
+    private Integer sequence;
+    // The code of the `Mark`, 0 for a restart.
+    private Integer mark;
+    // The ordinal of the `Pos`.
+    private Integer pos;
+
+    public MoveEventEntity(Integer gameId, Integer sequence, Integer mark, Integer pos){
+        this.gameId = gameId;
+        this.sequence = sequence;
+        this.mark = mark;
+        this.pos = pos;
+    }
+
+    protected MoveEventEntity(){
+    }
+
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public Integer getSequence() {
+        return sequence;
+    }
+
+    public Integer getMark() {
+        return mark;
+    }
+
+    public Integer getPos() {
+        return pos;
+    }
+
+    @Override
+    public String toString() {
+        return "gameId: \"" + gameId + "\", sequence: \"" + sequence + "\", mark: \"" + mark + "\", pos: \"" + pos + "\"";
+    }
+
+    public static class Key implements Serializable {
+        private Integer gameId;
+        private Integer sequence;
+
+        public Key(Integer gameId, Integer sequence) {
+            this.gameId = gameId;
+            this.sequence = sequence;
+        }
+
+        protected Key() {
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key key && Objects.equals(gameId, key.gameId) && Objects.equals(sequence, key.sequence);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(gameId, sequence);
+        }
+    }
+}
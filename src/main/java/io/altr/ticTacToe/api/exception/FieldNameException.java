@@ -9,4 +9,12 @@ public class FieldNameException extends RuntimeException{
     public FieldNameException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Creates the exception without a stack trace if `writableStackTrace` is false. Such an
+     * exception is cheap to throw, and can be created once and thrown over and over.
+     */
+    public FieldNameException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
\ No newline at end of file
@@ -1,12 +1,37 @@
 package io.altr.ticTacToe.api.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 @RestControllerAdvice
 public class GameExceptionHandler {
+    // Errors are always JSON, also to clients that asked for the binary form of a game.
+    private static final HttpHeaders jsonHeaders = new HttpHeaders();
+
+    // Rejected moves come with a small, fixed set of messages, far below this.
+    private static final int MAX_REJECTION_RESPONSES = 256;
+
+    static {
+        jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, ResponseEntity<Object>> rejectionResponses = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GameExceptionHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
 
     @ExceptionHandler(value = {GameNotFoundException.class})
     public ResponseEntity<Object> handleGameNotFoundException(
@@ -16,7 +41,7 @@ public class GameExceptionHandler {
             gameNotFoundException.getCause(),
             HttpStatus.NOT_FOUND);
 
-        return new ResponseEntity<>(gameException, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(gameException, jsonHeaders, HttpStatus.NOT_FOUND);
     }
 
 
@@ -29,7 +54,7 @@ public class GameExceptionHandler {
                 gameOfIdNotFoundException.getCause(),
                 HttpStatus.BAD_REQUEST);
 
-        return new ResponseEntity<>(gameException, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(gameException, jsonHeaders, HttpStatus.BAD_REQUEST);
     }
 
 
@@ -37,12 +62,7 @@ public class GameExceptionHandler {
     @ExceptionHandler(value = {MissingFieldOfNameException.class})
     public ResponseEntity<Object> handleMissingFieldOfNameException(
             MissingFieldOfNameException missingFieldOfNameException){
-        GameException gameException = new GameException(
-                missingFieldOfNameException.getMessage(),
-                missingFieldOfNameException.getCause(),
-                HttpStatus.BAD_REQUEST);
-
-        return new ResponseEntity<>(gameException, HttpStatus.BAD_REQUEST);
+        return rejectionResponse(missingFieldOfNameException.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
 
@@ -50,12 +70,7 @@ public class GameExceptionHandler {
     @ExceptionHandler(value = {WrongFieldNameException.class})
     public ResponseEntity<Object> handleWrongFieldNameException(
             WrongFieldNameException wrongFieldNameException){
-        GameException gameException = new GameException(
-                wrongFieldNameException.getMessage(),
-                wrongFieldNameException.getCause(),
-                HttpStatus.BAD_REQUEST);
-
-        return new ResponseEntity<>(gameException, HttpStatus.BAD_REQUEST);
+        return rejectionResponse(wrongFieldNameException.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
 
@@ -63,12 +78,7 @@ public class GameExceptionHandler {
     @ExceptionHandler(value = {GameStateWonException.class})
     public ResponseEntity<Object> handleGameStateWonException(
             GameStateWonException gameStateWonException){
-        GameException gameException = new GameException(
-                gameStateWonException.getMessage(),
-                gameStateWonException.getCause(),
-                HttpStatus.CONFLICT);
-
-        return new ResponseEntity<>(gameException, HttpStatus.CONFLICT);
+        return rejectionResponse(gameStateWonException.getMessage(), HttpStatus.CONFLICT);
     }
 
 
@@ -76,11 +86,36 @@ public class GameExceptionHandler {
     @ExceptionHandler(value = {GameStateOutOfTurnException.class})
     public ResponseEntity<Object> handleGameStateOutOfTurnException(
             GameStateOutOfTurnException gameStateOutOfTurnException){
-        GameException gameException = new GameException(
-                gameStateOutOfTurnException.getMessage(),
-                gameStateOutOfTurnException.getCause(),
+        return rejectionResponse(gameStateOutOfTurnException.getMessage(), HttpStatus.CONFLICT);
+    }
+
+
+
+    @ExceptionHandler(value = {OptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException optimisticLockingFailureException){
+        return rejectionResponse(
+                "Game was changed by another request in the meantime. Get the game and try again.",
                 HttpStatus.CONFLICT);
+    }
+
+
+
+    /**
+     * Answers a rejected move. The body is the same `GameException` JSON as for other errors, but
+     * it's encoded once per message and reused, since moves are rejected with a fixed set of messages.
+     */
+    private ResponseEntity<Object> rejectionResponse(String message, HttpStatus httpStatus) {
+        ResponseEntity<Object> response = rejectionResponses.get(message);
+        if (response != null) return response;
 
-        return new ResponseEntity<>(gameException, HttpStatus.CONFLICT);
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new GameException(message, null, httpStatus));
+            response = new ResponseEntity<>(body, jsonHeaders, httpStatus);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Couldn't encode the error: " + message, e);
+        }
+        if (rejectionResponses.size() < MAX_REJECTION_RESPONSES) rejectionResponses.putIfAbsent(message, response);
+        return response;
     }
 }
@@ -8,4 +8,12 @@ public class GameStateException extends RuntimeException{
     public GameStateException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Creates the exception without a stack trace if `writableStackTrace` is false. Such an
+     * exception is cheap to throw, and can be created once and thrown over and over.
+     */
+    public GameStateException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -7,4 +7,8 @@ public class GameStateOutOfTurnException extends  GameStateException{
     public GameStateOutOfTurnException(String message) {
         super(message);
     }
+
+    public GameStateOutOfTurnException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
 }
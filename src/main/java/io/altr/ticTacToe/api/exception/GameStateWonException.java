@@ -7,4 +7,8 @@ public class GameStateWonException extends GameStateException{
     public GameStateWonException(String message) {
         super(message);
     }
+
+    public GameStateWonException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
 }
@@ -5,4 +5,8 @@ public class MissingFieldOfNameException extends FieldNameException{
     public MissingFieldOfNameException(String message) {
         super(message);
     }
+
+    public MissingFieldOfNameException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
 }
@@ -5,4 +5,8 @@ public class WrongFieldNameException extends FieldNameException{
     public WrongFieldNameException(String message) {
         super(message);
     }
+
+    public WrongFieldNameException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
 }
@@ -0,0 +1,211 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.api.entity.MoveEventEntity;
+import io.altr.ticTacToe.engine.Game;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Keeps every move of every game in an append-only log, active with the Spring profile "events".
+ *
+ * A write inserts one row per move, numbered on from the version it was computed from, so no row
+ * is ever updated on the hot path. Two writes racing over the same version insert the same
+ * (gameId, sequence) key, and the primary key turns the loser away. The `GameEntity` of a game is
+ * a snapshot, moved forward every `tictactoe.events.snapshot-interval` moves, and a game is read
+ * by replaying the moves logged after its snapshot onto it.
+ *
+ * Only `GameServiceImpl` writes through this store, so `GameStoreConfig` refuses to start it in
+ * write-behind mode or with the "reactive" profile, which would leave gaps in the log.
+ */
+@Component
+@Profile("events")
+public class EventGameStore implements GameStore {
+
+    private final GameRepository gameRepository;
+    private final MoveEventRepository moveEventRepository;
+    private final int snapshotInterval;
+
+    @Autowired
+    public EventGameStore(GameRepository gameRepository, MoveEventRepository moveEventRepository,
+                          @Value("${tictactoe.events.snapshot-interval:10}") int snapshotInterval) {
+        this.gameRepository = gameRepository;
+        this.moveEventRepository = moveEventRepository;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+
+
+
+
+    @Override
+    public GameEntity create() {
+        GameEntity gameEntity = new GameEntity();
+        gameRepository.save(gameEntity);
+        return gameEntity;
+    }
+
+    @Override
+    public List<GameEntity> createAll(int count) {
+        List<GameEntity> gameEntities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            gameEntities.add(new GameEntity());
+        }
+        gameRepository.saveAll(gameEntities);
+        return gameEntities;
+    }
+
+    /**
+     * Reads the snapshot of the game and replays the moves logged after it.
+     */
+    @Override
+    public long find(int gameId) {
+        Optional<GameEntity> snapshot = gameRepository.findById(gameId);
+        if (snapshot.isEmpty()) return GameCache.MISSING;
+
+        long entry = GameCache.entryOf(snapshot.get().getVersion(), snapshot.get().getTileMask());
+        for (MoveEventEntity moveEvent : moveEventRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(
+                gameId, snapshot.get().getVersion())) {
+            entry = replay(entry, moveEvent);
+        }
+        return entry;
+    }
+
+    /**
+     * Reads the moves logged after the snapshots of the games with one query, and the snapshots
+     * with another. The moves are read first: a snapshot moved forward in between is then newer,
+     * and the moves it covers are skipped, rather than older, which would leave a gap.
+     */
+    @Override
+    public Map<Integer, Long> findAll(Collection<Integer> gameIds) {
+        List<MoveEventEntity> moveEvents = moveEventRepository.findAfterSnapshots(gameIds);
+        Map<Integer, Long> games = new HashMap<>();
+        for (GameEntity snapshot : gameRepository.findAllById(gameIds)) {
+            games.put(snapshot.getGameId(), GameCache.entryOf(snapshot.getVersion(), snapshot.getTileMask()));
+        }
+        for (MoveEventEntity moveEvent : moveEvents) {
+            Long entry = games.get(moveEvent.getGameId());
+            if (entry != null) games.put(moveEvent.getGameId(), replay(entry, moveEvent));
+        }
+        return games;
+    }
+
+    /**
+     * Rebuilds a game as it was right after the given move, by replaying its log from the start.
+     *
+     * @return the version and tileMask of the game, or `GameCache.MISSING` if the game has no such move
+     */
+    public long findAt(int gameId, int sequence) {
+        long entry = GameCache.entryOf(0, 0);
+        for (MoveEventEntity moveEvent : moveEventRepository.findByGameIdAndSequenceLessThanEqualOrderBySequence(
+                gameId, sequence)) {
+            entry = replay(entry, moveEvent);
+        }
+        return GameCache.versionOf(entry) == sequence ? entry : GameCache.MISSING;
+    }
+
+    @Override
+    @Transactional
+    public GameEntity delete(int gameId) {
+        Optional<GameEntity> snapshot = gameRepository.findById(gameId);
+        if (snapshot.isEmpty()) return null;
+
+        gameRepository.deleteById(gameId);
+        moveEventRepository.deleteByGameId(gameId);
+        return snapshot.get();
+    }
+
+    @Override
+    public int write(int gameId, int version, int tileMask, int move) {
+        try {
+            moveEventRepository.append(gameId, version + 1, move);
+        } catch (DuplicateKeyException e) {
+            return CONFLICT;
+        }
+        advanceSnapshot(gameId, version, version + 1, tileMask);
+        return version + 1;
+    }
+
+    /**
+     * Appends the moves of all the games in one JDBC batch. If any game was changed in the meantime
+     * the batch is rolled back as a whole, and the games are appended one by one instead, to tell
+     * which ones were.
+     */
+    @Override
+    public int[] writeAll(int[] gameIds, int[] versions, int[] tileMasks, int[][] moves, int count) {
+        int[] written = new int[count];
+        int total = 0;
+        for (int g = 0; g < count; g++) {
+            total += moves[g].length;
+        }
+
+        try {
+            int[] eventGameIds = new int[total];
+            int[] sequences = new int[total];
+            int[] eventMoves = new int[total];
+            int e = 0;
+            for (int g = 0; g < count; g++) {
+                for (int m = 0; m < moves[g].length; m++, e++) {
+                    eventGameIds[e] = gameIds[g];
+                    sequences[e] = versions[g] + 1 + m;
+                    eventMoves[e] = moves[g][m];
+                }
+            }
+            moveEventRepository.batchAppend(eventGameIds, sequences, eventMoves, total);
+            for (int g = 0; g < count; g++) {
+                written[g] = versions[g] + moves[g].length;
+            }
+        } catch (DuplicateKeyException batchConflict) {
+            for (int g = 0; g < count; g++) {
+                written[g] = append(gameIds[g], versions[g], moves[g]);
+            }
+        }
+
+        for (int g = 0; g < count; g++) {
+            if (written[g] != CONFLICT) advanceSnapshot(gameIds[g], versions[g], written[g], tileMasks[g]);
+        }
+        return written;
+    }
+
+    private int append(int gameId, int version, int[] moves) {
+        int[] gameIds = new int[moves.length];
+        int[] sequences = new int[moves.length];
+        for (int m = 0; m < moves.length; m++) {
+            gameIds[m] = gameId;
+            sequences[m] = version + 1 + m;
+        }
+        try {
+            moveEventRepository.batchAppend(gameIds, sequences, moves, moves.length);
+            return version + moves.length;
+        } catch (DuplicateKeyException e) {
+            return CONFLICT;
+        }
+    }
+
+    /**
+     * Moves the snapshot of a game to its new version, if the write crossed a multiple of the snapshot interval.
+     */
+    private void advanceSnapshot(int gameId, int oldVersion, int newVersion, int tileMask) {
+        if (oldVersion / snapshotInterval == newVersion / snapshotInterval) return;
+        gameRepository.advanceSnapshot(gameId, newVersion, tileMask);
+    }
+
+    /**
+     * Applies a logged move to a game, if it's the next one. Moves already covered by a snapshot
+     * read after them are skipped.
+     */
+    private static long replay(long entry, MoveEventEntity moveEvent) {
+        int version = GameCache.versionOf(entry);
+        if (moveEvent.getSequence() != version + 1) return entry;
+
+        Game game = GameStore.replay(new Game(GameCache.tileMaskOf(entry)), GameStore.move(moveEvent.getMark(), moveEvent.getPos()));
+        return GameCache.entryOf(version + 1, game.getTileMask());
+    }
+}
@@ -1,7 +1,38 @@
 package io.altr.ticTacToe.api.repository;
 
 import io.altr.ticTacToe.api.entity.GameEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface GameRepository extends CrudRepository<GameEntity, Integer> {
+public interface GameRepository extends CrudRepository<GameEntity, Integer>, GameRepositoryCustom {
+
+    /**
+     * Replaces the tileMask of a game in a single statement, if its version is still the expected one.
+     * The version is bumped by one, just like a versioned save would.
+     *
+     * @return 1 if the game was updated, 0 if it's missing or was changed in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query("update GameEntity g set g.tileMask = :tileMask, g.version = g.version + 1 " +
+            "where g.gameId = :gameId and g.version = :version")
+    int compareAndSetTileMask(@Param("gameId") Integer gameId,
+                              @Param("version") Integer version,
+                              @Param("tileMask") Integer tileMask);
+
+    /**
+     * Moves the snapshot of a game forward to the given version, unless it's already there or past it.
+     *
+     * @return 1 if the snapshot was updated, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("update GameEntity g set g.tileMask = :tileMask, g.version = :version " +
+            "where g.gameId = :gameId and g.version < :version")
+    int advanceSnapshot(@Param("gameId") Integer gameId,
+                        @Param("version") Integer version,
+                        @Param("tileMask") Integer tileMask);
 }
@@ -0,0 +1,22 @@
+package io.altr.ticTacToe.api.repository;
+
+public interface GameRepositoryCustom {
+
+    /**
+     * Writes the tileMask and version of the first `count` given games in one JDBC batch,
+     * within a single transaction.
+     *
+     * @return the number of games updated
+     */
+    int batchUpdateTileMasks(int[] gameIds, int[] tileMasks, int[] versions, int count);
+
+    /**
+     * Replaces the tileMask of the first `count` given games in one JDBC batch, within a single
+     * transaction. A game is only updated if its version is still the given one, and its version
+     * is then bumped by one.
+     *
+     * @return for each game, the number of rows updated: 0 if the game was changed in the meantime,
+     *         or a negative count, like `Statement.SUCCESS_NO_INFO`, if the driver didn't report it
+     */
+    int[] batchCompareAndSetTileMasks(int[] gameIds, int[] tileMasks, int[] versions, int count);
+}
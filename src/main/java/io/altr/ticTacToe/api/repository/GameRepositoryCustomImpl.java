@@ -0,0 +1,69 @@
+package io.altr.ticTacToe.api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class GameRepositoryCustomImpl implements GameRepositoryCustom {
+
+    private static final String UPDATE_TILE_MASK =
+            "update game_entity set tile_mask = ?, version = ? where game_id = ?";
+
+    private static final String COMPARE_AND_SET_TILE_MASK =
+            "update game_entity set tile_mask = ?, version = version + 1 where game_id = ? and version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public GameRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public int batchUpdateTileMasks(int[] gameIds, int[] tileMasks, int[] versions, int count) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_TILE_MASK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, tileMasks[i]);
+                ps.setInt(2, versions[i]);
+                ps.setInt(3, gameIds[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+
+        int total = 0;
+        for (int rows : updated) {
+            // Drivers may report SUCCESS_NO_INFO (-2) for batched statements.
+            total += rows < 0 ? 1 : rows;
+        }
+        return total;
+    }
+
+    @Override
+    @Transactional
+    public int[] batchCompareAndSetTileMasks(int[] gameIds, int[] tileMasks, int[] versions, int count) {
+        int[] updated = jdbcTemplate.batchUpdate(COMPARE_AND_SET_TILE_MASK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, tileMasks[i]);
+                ps.setInt(2, gameIds[i]);
+                ps.setInt(3, versions[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+        return updated;
+    }
+}
@@ -0,0 +1,92 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where `GameServiceImpl` keeps its games, behind the `GameCache`. Games are read as cache
+ * entries, their version and tileMask packed into a long (see `GameCache.entryOf`). Games are
+ * written together with the moves that changed them, so a store can keep the moves themselves
+ * rather than only the latest state.
+ *
+ * A move is an int: the mark code above the `Pos` ordinal, see `move`. `RESTART`, which has no
+ * mark, stands for a restart of the game.
+ */
+public interface GameStore {
+    int RESTART = 0;
+    /** Returned by writes when the game was changed in the meantime, or is missing. */
+    int CONFLICT = -1;
+
+    static int move(int mark, int pos) {
+        return mark << 4 | pos;
+    }
+
+    static int markOf(int move) {
+        return move >>> 4;
+    }
+
+    static int posOf(int move) {
+        return move & 0xF;
+    }
+
+    /**
+     * Applies a move to a game, without checking it.
+     *
+     * @return the game after the move, a new one for `RESTART`
+     */
+    static Game replay(Game game, int move) {
+        if (move == RESTART) return new Game();
+        game.tryPlace(Mark.values()[markOf(move)], Pos.values()[posOf(move)]);
+        return game;
+    }
+
+
+
+
+
+    GameEntity create();
+
+    /**
+     * Creates many games at once.
+     *
+     * @return the created games, in the order their gameIds were allocated
+     */
+    List<GameEntity> createAll(int count);
+
+    /**
+     * @return the version and tileMask of the game, or `GameCache.MISSING` if there is no such game
+     */
+    long find(int gameId);
+
+    /**
+     * @return the version and tileMask of every game found, keyed by gameId
+     */
+    Map<Integer, Long> findAll(Collection<Integer> gameIds);
+
+    /**
+     * @return the deleted game, or `null` if there is no such game
+     */
+    GameEntity delete(int gameId);
+
+    /**
+     * Writes a move over the given version of a game, if it's still the current one.
+     *
+     * @param tileMask the state of the game after the move
+     * @return the new version of the game, or `CONFLICT`
+     */
+    int write(int gameId, int version, int tileMask, int move);
+
+    /**
+     * Writes the moves of the first `count` given games, like `write` does for one, all in one batch.
+     * The moves of a game are in the order they were made.
+     *
+     * @return for each game, its new version, or `CONFLICT`
+     */
+    int[] writeAll(int[] gameIds, int[] versions, int[] tileMasks, int[][] moves, int count);
+}
@@ -0,0 +1,341 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps every game in memory and logs every change to a journal file, active with the Spring
+ * profile "journal", for single-node deployments without a database.
+ *
+ * The journal is a sequence of fixed 8-byte records, each written with a single store into a
+ * memory-mapped segment of the file: the gameId in the upper half, and the move, a creation or a
+ * deletion in the lower half, with its top bit set. Slots never written are zero, so the first
+ * record without that bit ends the journal. At startup the journal is scanned from the start and
+ * the games are rebuilt from it.
+ *
+ * Appends are serialized, so the records of a game are in the order they were made, and each
+ * write is checked against the in-memory version of the game, like a compare-and-set. With
+ * `tictactoe.journal.sync` on, a write returns only once its record is forced to disk. Writers
+ * waiting at the same time share one force: the first one forces everything appended so far, and
+ * the others wait for it instead of forcing again. A write is visible to readers as soon as it is
+ * appended, before it is forced, so a crash can lose moves others have already seen, though never
+ * one the writer was answered for.
+ *
+ * The profile runs without a DataSource, see application-journal.properties. Only `GameServiceImpl`
+ * writes through this store, so `GameStoreConfig` refuses to start it in write-behind mode or with
+ * the "reactive" profile.
+ */
+@Component
+@Profile("journal")
+public class JournalGameStore implements GameStore {
+    public static final int RECORD_SIZE = Long.BYTES;
+
+    // Set in every record, so no written record is zero.
+    private static final int WRITTEN = 1 << 31;
+    private static final int CREATE = 0x40;
+    private static final int DELETE = 0x41;
+
+    private final Logger logInfo = LoggerFactory.getLogger(JournalGameStore.class);
+    private final FileChannel channel;
+    private final long segmentSize;
+    private final boolean sync;
+    // The version and tileMask of every game, as packed by `GameCache.entryOf`.
+    private final ConcurrentHashMap<Integer, Long> games = new ConcurrentHashMap<>();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile MappedByteBuffer[] segments;
+    private volatile long position;
+    private int nextGameId = 1;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private boolean syncing;
+    private volatile long durablePosition;
+
+    @Autowired
+    public JournalGameStore(@Value("${tictactoe.journal.path:journal/games.journal}") Path path,
+                            @Value("${tictactoe.journal.segment-size:67108864}") long segmentSize,
+                            @Value("${tictactoe.journal.sync:true}") boolean sync) {
+        if (segmentSize % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("The segment size should be a multiple of " + RECORD_SIZE + ".");
+        }
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int segmentCount = (int) Math.max(1, (channel.size() + segmentSize - 1) / segmentSize);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * segmentSize, segmentSize);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        recover();
+        durablePosition = position;
+        logInfo.info("Recovered {} games from {} journal records", games.size(), position / RECORD_SIZE);
+    }
+
+    /**
+     * Rebuilds the games by replaying the journal, up to its first record that is zero, was only
+     * partly written, or doesn't fit the games replayed before it. Nothing after that record was
+     * acknowledged, so it is zeroed, or new records written over the gap would be followed by
+     * stale ones on the next recovery.
+     */
+    private void recover() {
+        long end = (long) segments.length * segmentSize;
+        while (position < end) {
+            long record = read(position);
+            int gameId = (int) (record >>> 32);
+            int code = (int) record & ~WRITTEN;
+            if (((int) record & WRITTEN) == 0 || gameId < 1 || !isCode(code)) break;
+
+            Long entry = games.get(gameId);
+            if (code == CREATE) {
+                if (entry != null) break;
+                games.put(gameId, GameCache.entryOf(0, 0));
+            } else if (entry == null) {
+                break;
+            } else if (code == DELETE) {
+                games.remove(gameId);
+            } else {
+                Game game = GameStore.replay(new Game(GameCache.tileMaskOf(entry)), code);
+                games.put(gameId, GameCache.entryOf(GameCache.versionOf(entry) + 1, game.getTileMask()));
+            }
+            nextGameId = Math.max(nextGameId, gameId + 1);
+            position += RECORD_SIZE;
+        }
+
+        boolean zeroed = false;
+        for (long at = position; at < end; at += RECORD_SIZE) {
+            if (read(at) == 0) continue;
+            segments[(int) (at / segmentSize)].putLong((int) (at % segmentSize), 0);
+            zeroed = true;
+        }
+        if (zeroed) force(position, end);
+    }
+
+    private static boolean isCode(int code) {
+        if (code == CREATE || code == DELETE || code == GameStore.RESTART) return true;
+        int mark = GameStore.markOf(code);
+        return (mark == Mark.X.ordinal() || mark == Mark.O.ordinal()) && GameStore.posOf(code) < Pos.values().length;
+    }
+
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            for (MappedByteBuffer segment : segments) segment.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+
+
+
+
+    @Override
+    public GameEntity create() {
+        return createAll(1).get(0);
+    }
+
+    @Override
+    public List<GameEntity> createAll(int count) {
+        List<GameEntity> gameEntities = new ArrayList<>(count);
+        long end;
+        appendLock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                int gameId = nextGameId++;
+                append(gameId, CREATE);
+                games.put(gameId, GameCache.entryOf(0, 0));
+                gameEntities.add(new GameEntity(gameId, 0));
+            }
+            end = position;
+        } finally {
+            appendLock.unlock();
+        }
+        sync(end);
+        return gameEntities;
+    }
+
+    @Override
+    public long find(int gameId) {
+        Long entry = games.get(gameId);
+        return entry == null ? GameCache.MISSING : entry;
+    }
+
+    @Override
+    public Map<Integer, Long> findAll(Collection<Integer> gameIds) {
+        Map<Integer, Long> found = new HashMap<>();
+        for (Integer gameId : gameIds) {
+            Long entry = games.get(gameId);
+            if (entry != null) found.put(gameId, entry);
+        }
+        return found;
+    }
+
+    @Override
+    public GameEntity delete(int gameId) {
+        Long entry;
+        long end;
+        appendLock.lock();
+        try {
+            entry = games.remove(gameId);
+            if (entry == null) return null;
+            append(gameId, DELETE);
+            end = position;
+        } finally {
+            appendLock.unlock();
+        }
+        sync(end);
+        return new GameEntity(gameId, GameCache.tileMaskOf(entry));
+    }
+
+    @Override
+    public int write(int gameId, int version, int tileMask, int move) {
+        long end;
+        appendLock.lock();
+        try {
+            Long entry = games.get(gameId);
+            if (entry == null || GameCache.versionOf(entry) != version) return CONFLICT;
+            append(gameId, move);
+            games.put(gameId, GameCache.entryOf(version + 1, tileMask));
+            end = position;
+        } finally {
+            appendLock.unlock();
+        }
+        sync(end);
+        return version + 1;
+    }
+
+    /**
+     * Appends the moves of all the games, and forces them to disk once for the whole batch.
+     */
+    @Override
+    public int[] writeAll(int[] gameIds, int[] versions, int[] tileMasks, int[][] moves, int count) {
+        int[] written = new int[count];
+        long end;
+        appendLock.lock();
+        try {
+            for (int g = 0; g < count; g++) {
+                Long entry = games.get(gameIds[g]);
+                if (entry == null || GameCache.versionOf(entry) != versions[g]) {
+                    written[g] = CONFLICT;
+                    continue;
+                }
+                for (int move : moves[g]) {
+                    append(gameIds[g], move);
+                }
+                written[g] = versions[g] + moves[g].length;
+                games.put(gameIds[g], GameCache.entryOf(written[g], tileMasks[g]));
+            }
+            end = position;
+        } finally {
+            appendLock.unlock();
+        }
+        sync(end);
+        return written;
+    }
+
+
+
+
+
+    /**
+     * Writes one record at the end of the journal, mapping a new segment when the last one is full.
+     * Called with the append lock held.
+     */
+    private void append(int gameId, int code) {
+        int segment = (int) (position / segmentSize);
+        if (segment == segments.length) {
+            try {
+                MappedByteBuffer[] grown = Arrays.copyOf(segments, segment + 1);
+                grown[segment] = channel.map(FileChannel.MapMode.READ_WRITE, segment * segmentSize, segmentSize);
+                segments = grown;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        segments[segment].putLong((int) (position % segmentSize), (long) gameId << 32 | (WRITTEN | code) & 0xFFFFFFFFL);
+        position += RECORD_SIZE;
+    }
+
+    private long read(long at) {
+        return segments[(int) (at / segmentSize)].getLong((int) (at % segmentSize));
+    }
+
+    /**
+     * Returns once every record before `end` is forced to disk, forcing them if no other writer is.
+     *
+     * @throws UncheckedIOException if this writer's force fails, in which case the write is applied
+     *         in memory but may not survive a crash
+     */
+    private void sync(long end) {
+        if (!sync || durablePosition >= end) return;
+
+        syncLock.lock();
+        try {
+            while (durablePosition < end) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long from = durablePosition;
+                long to = position;
+                boolean forced = false;
+                syncLock.unlock();
+                try {
+                    force(from, to);
+                    forced = true;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    // After a failed force the waiters find nothing more durable, and force again themselves.
+                    if (forced) durablePosition = Math.max(durablePosition, to);
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Package-private so tests can make it fail.
+    void force(long from, long to) {
+        MappedByteBuffer[] mapped = segments;
+        for (long at = from - from % segmentSize; at < to; at += segmentSize) {
+            int start = (int) (Math.max(at, from) - at);
+            int length = (int) (Math.min(at + segmentSize, to) - at) - start;
+            mapped[(int) (at / segmentSize)].force(start, length);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Keeps only the latest state of every game, one row each, and overwrites it in place with a
+ * single compare-and-set statement per write. The moves themselves aren't kept.
+ */
+@Component
+@Profile("!events & !journal & !memory")
+public class JpaGameStore implements GameStore {
+
+    private final GameRepository gameRepository;
+
+    @Autowired
+    public JpaGameStore(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+
+
+
+
+    @Override
+    public GameEntity create() {
+        GameEntity gameEntity = new GameEntity();
+        gameRepository.save(gameEntity);
+        return gameEntity;
+    }
+
+    @Override
+    public List<GameEntity> createAll(int count) {
+        List<GameEntity> gameEntities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            gameEntities.add(new GameEntity());
+        }
+        gameRepository.saveAll(gameEntities);
+        return gameEntities;
+    }
+
+    @Override
+    public long find(int gameId) {
+        Optional<GameEntity> gameEnOp = gameRepository.findById(gameId);
+        if (gameEnOp.isEmpty()) return GameCache.MISSING;
+        return GameCache.entryOf(gameEnOp.get().getVersion(), gameEnOp.get().getTileMask());
+    }
+
+    @Override
+    public Map<Integer, Long> findAll(Collection<Integer> gameIds) {
+        Map<Integer, Long> games = new HashMap<>();
+        for (GameEntity gameEntity : gameRepository.findAllById(gameIds)) {
+            games.put(gameEntity.getGameId(), GameCache.entryOf(gameEntity.getVersion(), gameEntity.getTileMask()));
+        }
+        return games;
+    }
+
+    @Override
+    public GameEntity delete(int gameId) {
+        Optional<GameEntity> gameEnOp = gameRepository.findById(gameId);
+        if (gameEnOp.isEmpty()) return null;
+
+        gameRepository.deleteById(gameId);
+        return gameEnOp.get();
+    }
+
+    @Override
+    public int write(int gameId, int version, int tileMask, int move) {
+        if (gameRepository.compareAndSetTileMask(gameId, version, tileMask) == 0) return CONFLICT;
+        return version + 1;
+    }
+
+    /**
+     * Writes all the games in one batch. A driver may not report the outcome of a batched
+     * statement, like MySQL with rewritten batches, and those games are read back: a write is only
+     * taken as applied if the game is now at the next version with the written tileMask.
+     */
+    @Override
+    public int[] writeAll(int[] gameIds, int[] versions, int[] tileMasks, int[][] moves, int count) {
+        int[] updated = gameRepository.batchCompareAndSetTileMasks(gameIds, tileMasks, versions, count);
+        int[] written = new int[count];
+        List<Integer> unknown = new ArrayList<>();
+        for (int g = 0; g < count; g++) {
+            if (updated[g] < 0) unknown.add(gameIds[g]);
+            written[g] = updated[g] > 0 ? versions[g] + 1 : CONFLICT;
+        }
+        if (unknown.isEmpty()) return written;
+
+        Map<Integer, Long> found = findAll(unknown);
+        for (int g = 0; g < count; g++) {
+            if (updated[g] >= 0) continue;
+            Long entry = found.get(gameIds[g]);
+            if (entry != null && entry == GameCache.entryOf(versions[g] + 1, tileMasks[g])) written[g] = versions[g] + 1;
+        }
+        return written;
+    }
+}
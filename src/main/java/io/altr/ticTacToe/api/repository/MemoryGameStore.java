@@ -0,0 +1,190 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps every game in memory only, as one long per game, active with the Spring profile "memory".
+ *
+ * A game is its version and tileMask, packed as by `GameCache.entryOf`, at the index of its gameId
+ * in pages of `PAGE_SIZE` longs. Pages are allocated as gameIds reach them, so the heap holds a
+ * few large arrays however many games there are, and nothing per game for the GC to trace:
+ * 10M games take 80 MB. A write is a single compare-and-set of the long, which fails when the
+ * version isn't the one the move was computed from.
+ *
+ * The gameIds of deleted games are kept on a free list and handed out again before new ones. A
+ * free slot keeps the version of its last game, complemented so it reads as missing, and the next
+ * game in it starts from the version after it, so nothing cached from the old game looks newer.
+ *
+ * Nothing is persisted: the games are lost when the application stops. The profile runs without a
+ * DataSource, see application-memory.properties. Only `GameServiceImpl` writes through this store,
+ * so `GameStoreConfig` refuses to start it in write-behind mode or with the "reactive" profile.
+ */
+@Component
+@Profile("memory")
+public class MemoryGameStore implements GameStore {
+    public static final int PAGE_SIZE = 1 << 16;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int maxGames;
+    private final AtomicReferenceArray<long[]> pages;
+
+    // Guards allocating gameIds, from the free list or past the highest one.
+    private final ReentrantLock allocationLock = new ReentrantLock();
+    private int[] freeGameIds = new int[16];
+    private int freeCount;
+    private int nextGameId = 1;
+
+    @Autowired
+    public MemoryGameStore(@Value("${tictactoe.memory.max-games:16777216}") int maxGames) {
+        this.maxGames = maxGames;
+        this.pages = new AtomicReferenceArray<>(maxGames / PAGE_SIZE + 1);
+    }
+
+    /**
+     * The number of games in the store.
+     */
+    public int size() {
+        allocationLock.lock();
+        try {
+            return nextGameId - 1 - freeCount;
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+
+
+
+
+    @Override
+    public GameEntity create() {
+        allocationLock.lock();
+        try {
+            return allocate();
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    @Override
+    public List<GameEntity> createAll(int count) {
+        List<GameEntity> gameEntities = new ArrayList<>(count);
+        allocationLock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                gameEntities.add(allocate());
+            }
+        } finally {
+            allocationLock.unlock();
+        }
+        return gameEntities;
+    }
+
+    @Override
+    public long find(int gameId) {
+        long[] page = pageOf(gameId);
+        if (page == null) return GameCache.MISSING;
+        long entry = (long) LONGS.getVolatile(page, gameId % PAGE_SIZE);
+        return entry < 0 ? GameCache.MISSING : entry;
+    }
+
+    @Override
+    public Map<Integer, Long> findAll(Collection<Integer> gameIds) {
+        Map<Integer, Long> found = new HashMap<>();
+        for (Integer gameId : gameIds) {
+            long entry = find(gameId);
+            if (entry != GameCache.MISSING) found.put(gameId, entry);
+        }
+        return found;
+    }
+
+    @Override
+    public GameEntity delete(int gameId) {
+        long[] page = pageOf(gameId);
+        if (page == null) return null;
+
+        long entry;
+        do {
+            entry = (long) LONGS.getVolatile(page, gameId % PAGE_SIZE);
+            if (entry < 0) return null;
+        } while (!LONGS.compareAndSet(page, gameId % PAGE_SIZE, entry, ~GameCache.entryOf(GameCache.versionOf(entry), 0)));
+
+        allocationLock.lock();
+        try {
+            if (freeCount == freeGameIds.length) freeGameIds = Arrays.copyOf(freeGameIds, freeCount * 2);
+            freeGameIds[freeCount++] = gameId;
+        } finally {
+            allocationLock.unlock();
+        }
+        return new GameEntity(gameId, GameCache.tileMaskOf(entry));
+    }
+
+    @Override
+    public int write(int gameId, int version, int tileMask, int move) {
+        long[] page = pageOf(gameId);
+        if (page == null) return CONFLICT;
+
+        long entry = (long) LONGS.getVolatile(page, gameId % PAGE_SIZE);
+        if (entry < 0 || GameCache.versionOf(entry) != version) return CONFLICT;
+        // Any other write in between changed the version, so a failed CAS is always a conflict.
+        if (!LONGS.compareAndSet(page, gameId % PAGE_SIZE, entry, GameCache.entryOf(version + 1, tileMask))) return CONFLICT;
+        return version + 1;
+    }
+
+    @Override
+    public int[] writeAll(int[] gameIds, int[] versions, int[] tileMasks, int[][] moves, int count) {
+        int[] written = new int[count];
+        for (int g = 0; g < count; g++) {
+            written[g] = write(gameIds[g], versions[g], tileMasks[g], 0);
+        }
+        return written;
+    }
+
+
+
+
+
+    /**
+     * Takes a gameId off the free list, or the next one past the highest, and starts a game in it.
+     * Called with the allocation lock held.
+     */
+    private GameEntity allocate() {
+        int gameId;
+        if (freeCount > 0) {
+            gameId = freeGameIds[--freeCount];
+            long[] page = pageOf(gameId);
+            long free = (long) LONGS.getVolatile(page, gameId % PAGE_SIZE);
+            LONGS.setVolatile(page, gameId % PAGE_SIZE, GameCache.entryOf(GameCache.versionOf(~free) + 1, 0));
+        } else {
+            if (nextGameId > maxGames) {
+                throw new IllegalStateException("The store is full at " + maxGames + " games.");
+            }
+            gameId = nextGameId++;
+            long[] page = pageOf(gameId);
+            if (page == null) {
+                page = new long[PAGE_SIZE];
+                Arrays.fill(page, GameCache.MISSING);
+                pages.set(gameId / PAGE_SIZE, page);
+            }
+            LONGS.setVolatile(page, gameId % PAGE_SIZE, GameCache.entryOf(0, 0));
+        }
+        return new GameEntity(gameId, 0);
+    }
+
+    private long[] pageOf(int gameId) {
+        if (gameId < 1 || gameId > maxGames) return null;
+        return pages.get(gameId / PAGE_SIZE);
+    }
+}
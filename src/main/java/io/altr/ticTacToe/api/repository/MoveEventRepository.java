@@ -0,0 +1,33 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.entity.MoveEventEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MoveEventRepository extends CrudRepository<MoveEventEntity, MoveEventEntity.Key>, MoveEventRepositoryCustom {
+
+    List<MoveEventEntity> findByGameIdAndSequenceGreaterThanOrderBySequence(Integer gameId, Integer sequence);
+
+    List<MoveEventEntity> findByGameIdAndSequenceLessThanEqualOrderBySequence(Integer gameId, Integer sequence);
+
+    /**
+     * Finds the moves of the given games made after their snapshots, in one query.
+     *
+     * @return the moves, ordered by gameId and then by sequence
+     */
+    @Query("select e from MoveEventEntity e, GameEntity g " +
+            "where g.gameId in :gameIds and e.gameId = g.gameId and e.sequence > g.version " +
+            "order by e.gameId, e.sequence")
+    List<MoveEventEntity> findAfterSnapshots(@Param("gameIds") Collection<Integer> gameIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from MoveEventEntity e where e.gameId = :gameId")
+    int deleteByGameId(@Param("gameId") Integer gameId);
+}
@@ -0,0 +1,21 @@
+package io.altr.ticTacToe.api.repository;
+
+public interface MoveEventRepositoryCustom {
+
+    /**
+     * Inserts one move, encoded as by `GameStore.move`.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if a move with the same gameId and
+     *         sequence was already logged
+     */
+    void append(int gameId, int sequence, int move);
+
+    /**
+     * Inserts the first `count` given moves in one JDBC batch, within a single transaction.
+     * The moves are encoded as by `GameStore.move`.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if a move with the same gameId and
+     *         sequence was already logged, in which case none of the moves are
+     */
+    void batchAppend(int[] gameIds, int[] sequences, int[] moves, int count);
+}
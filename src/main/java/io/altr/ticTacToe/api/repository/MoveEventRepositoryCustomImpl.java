@@ -0,0 +1,46 @@
+package io.altr.ticTacToe.api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class MoveEventRepositoryCustomImpl implements MoveEventRepositoryCustom {
+
+    private static final String APPEND =
+            "insert into move_event_entity (game_id, sequence, mark, pos) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MoveEventRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(int gameId, int sequence, int move) {
+        jdbcTemplate.update(APPEND, gameId, sequence, GameStore.markOf(move), GameStore.posOf(move));
+    }
+
+    @Override
+    @Transactional
+    public void batchAppend(int[] gameIds, int[] sequences, int[] moves, int count) {
+        jdbcTemplate.batchUpdate(APPEND, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, gameIds[i]);
+                ps.setInt(2, sequences[i]);
+                ps.setInt(3, GameStore.markOf(moves[i]));
+                ps.setInt(4, GameStore.posOf(moves[i]));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package io.altr.ticTacToe.api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the games table over R2DBC, for the reactive game service.
+ * Reads return the tileMask and version packed into one long, the same way `GameCache` stores them.
+ * Every write is a single statement, so no reactive transaction manager is needed.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveGameRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveGameRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * @return the tileMask and version of the game, to be read with `GameCache.tileMaskOf` and
+     *         `GameCache.versionOf`, or an empty Mono if there is no game with the given ID
+     */
+    public Mono<Long> findTileMaskAndVersion(int gameId) {
+        return databaseClient.sql("select tile_mask, version from game_entity where game_id = :gameId")
+                .bind("gameId", gameId)
+                .map(row -> (long) row.get("version", Integer.class) << 32 | row.get("tile_mask", Integer.class))
+                .one();
+    }
+
+    /**
+     * Replaces the tileMask of the game if its version is still the given one, and bumps the version by one.
+     *
+     * @return the number of rows updated: 0 if the game is missing or was changed in the meantime
+     */
+    public Mono<Long> compareAndSetTileMask(int gameId, int version, int tileMask) {
+        return databaseClient.sql("update game_entity set tile_mask = :tileMask, version = version + 1"
+                        + " where game_id = :gameId and version = :version")
+                .bind("tileMask", tileMask)
+                .bind("gameId", gameId)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(int gameId) {
+        return databaseClient.sql("delete from game_entity where game_id = :gameId")
+                .bind("gameId", gameId)
+                .fetch()
+                .rowsUpdated();
+    }
+}
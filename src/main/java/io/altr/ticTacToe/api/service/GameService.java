@@ -1,13 +1,21 @@
 package io.altr.ticTacToe.api.service;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.dto.PlaceResult;
 import io.altr.ticTacToe.api.entity.GameEntity;
 import io.altr.ticTacToe.engine.Game;
 
+import java.util.List;
+
 public interface GameService {
     public GameEntity createNewGame();
+    public List<GameEntity> createNewGames(int count);
     public Game restartGame(Integer gameId);
     public Game getGame(Integer gameId);
+    public GameUpdate getGameUpdate(Integer gameId);
+    public GameUpdate watchGame(Integer gameId, GameUpdateListener listener);
+    public void unwatchGame(Integer gameId, GameUpdateListener listener);
     public GameEntity deleteGame(Integer gameId);
-    public Game placeInGame(Integer gameId, ObjectNode objectNode);
+    public Game placeInGame(Integer gameId, PlaceRequest placeRequest);
+    public List<PlaceResult> placeInGames(List<PlaceRequest> placeRequests);
 }
@@ -0,0 +1,66 @@
+package io.altr.ticTacToe.api.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.engine.Game;
+
+/**
+ * A state of a game, as pushed to the listeners of the game.
+ * The JSON form is encoded once on first use and shared by every listener it's written to.
+ * <br>Sample JSON:
+ * <pre>
+ * {
+ *     "gameId": 1,
+ *     "version": 3,
+ *     "game": {
+ *         "whoWon": "NONE",
+ *         "turnOf": "O",
+ *         "board": [...]
+ *     }
+ * }
+ * </pre>
+ */
+public final class GameUpdate {
+    private final int gameId;
+    private final int version;
+    private final Game game;
+    @JsonIgnore
+    private final ObjectMapper objectMapper;
+    @JsonIgnore
+    private volatile String json;
+
+    public GameUpdate(int gameId, int version, Game game, ObjectMapper objectMapper) {
+        this.gameId = gameId;
+        this.version = version;
+        this.game = game;
+        this.objectMapper = objectMapper;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public String toJson() {
+        // Listeners are notified one after another by the publishing thread, so the JSON is encoded
+        // once. No lock is taken: at worst two threads both encode it, and either result is correct.
+        String encoded = json;
+        if (encoded == null) {
+            try {
+                encoded = objectMapper.writeValueAsString(this);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Couldn't encode the update of game with gameId: " + gameId, e);
+            }
+            json = encoded;
+        }
+        return encoded;
+    }
+}
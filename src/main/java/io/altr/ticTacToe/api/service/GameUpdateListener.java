@@ -0,0 +1,10 @@
+package io.altr.ticTacToe.api.service;
+
+/**
+ * Receives the new state of a game after each successful move or restart.
+ * Called on the thread that changed the game, so implementations must not block.
+ */
+@FunctionalInterface
+public interface GameUpdateListener {
+    void onUpdate(GameUpdate gameUpdate);
+}
@@ -0,0 +1,95 @@
+package io.altr.ticTacToe.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.engine.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process registry of the listeners of each game.
+ *
+ * `publish` builds one `GameUpdate` per change and hands it to every listener of the game, so
+ * the update is encoded once no matter how many clients watch the game. Games without listeners
+ * have no entry at all, and publishing to them costs a single map lookup. The listeners of a game
+ * are a concurrent set, so subscribing and unsubscribing cost the same however many watch it.
+ */
+@Component
+public class GameUpdateRegistry {
+
+    private final Logger logInfo = LoggerFactory.getLogger(GameUpdateRegistry.class);
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<Integer, Set<GameUpdateListener>> listenersByGame = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GameUpdateRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+
+
+
+
+    public void subscribe(Integer gameId, GameUpdateListener listener) {
+        // Add within the map operation, so unsubscribe can't drop the entry between lookup and add.
+        listenersByGame.compute(gameId, (k, listeners) -> {
+            if (listeners == null) listeners = ConcurrentHashMap.newKeySet();
+            listeners.add(listener);
+            return listeners;
+        });
+    }
+
+    public void unsubscribe(Integer gameId, GameUpdateListener listener) {
+        // Drop the entry with its last listener, atomically with respect to subscribe.
+        listenersByGame.computeIfPresent(gameId, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    public int listenerCount(Integer gameId) {
+        Set<GameUpdateListener> listeners = listenersByGame.get(gameId);
+        return listeners == null ? 0 : listeners.size();
+    }
+
+    /**
+     * @return the number of games with at least one listener
+     */
+    public int watchedGameCount() {
+        return listenersByGame.size();
+    }
+
+    public GameUpdate toUpdate(Integer gameId, int version, Game game) {
+        return new GameUpdate(gameId, version, game, objectMapper);
+    }
+
+
+
+
+
+    /**
+     * Notifies every listener of the game of its new state.
+     * A failing listener is logged and skipped, so it can't keep the others from being notified.
+     *
+     * @param gameId the ID of the game that changed
+     * @param version the version of the game after the change
+     * @param game the state of the game after the change
+     */
+    public void publish(Integer gameId, int version, Game game) {
+        Set<GameUpdateListener> listeners = listenersByGame.get(gameId);
+        if (listeners == null) return;
+
+        GameUpdate gameUpdate = toUpdate(gameId, version, game);
+        for (GameUpdateListener listener : listeners) {
+            try {
+                listener.onUpdate(gameUpdate);
+            } catch (RuntimeException e) {
+                logInfo.warn("Listener of game with gameId: {} failed", gameId, e);
+            }
+        }
+    }
+}
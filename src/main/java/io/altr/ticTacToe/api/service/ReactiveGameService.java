@@ -0,0 +1,17 @@
+package io.altr.ticTacToe.api.service;
+
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.engine.Game;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveGameService {
+    public Mono<GameEntity> createNewGame();
+    public Mono<List<GameEntity>> createNewGames(int count);
+    public Mono<Game> restartGame(Integer gameId);
+    public Mono<Game> getGame(Integer gameId);
+    public Mono<GameEntity> deleteGame(Integer gameId);
+    public Mono<Game> placeInGame(Integer gameId, PlaceRequest placeRequest);
+}
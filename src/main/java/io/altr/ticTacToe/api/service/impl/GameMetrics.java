@@ -0,0 +1,120 @@
+package io.altr.ticTacToe.api.service.impl;
+
+import io.altr.ticTacToe.engine.Misplace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The meters of `GameServiceImpl`, all registered up front, so a call records into a field it
+ * already holds instead of looking a meter up by name and tags. Durations are taken with
+ * `System.nanoTime()` and recorded as plain longs, so recording allocates nothing.
+ *
+ * - `tictactoe.service`, a timer per `GameService` method, tagged `method`
+ * - `tictactoe.store`, a timer per `GameStore` call, tagged `operation`
+ * - `tictactoe.engine`, the time spent applying moves to the `Game`
+ * - `tictactoe.rejections`, a counter per reason a move is rejected, tagged `reason`
+ *
+ * The timers publish percentile histograms, so percentiles can be aggregated across instances.
+ */
+@Component
+public class GameMetrics {
+    final Timer createNewGame;
+    final Timer createNewGames;
+    final Timer restartGame;
+    final Timer getGame;
+    final Timer getGameUpdate;
+    final Timer watchGame;
+    final Timer unwatchGame;
+    final Timer deleteGame;
+    final Timer placeInGame;
+    final Timer placeInGames;
+
+    final Timer create;
+    final Timer createAll;
+    final Timer find;
+    final Timer findAll;
+    final Timer delete;
+    final Timer write;
+    final Timer writeAll;
+
+    final Timer engine;
+    // Indexed by the codes `PlaceMove.tryApply` rejects a move with.
+    private final Counter[] rejections = new Counter[PlaceMove.WRONG_POS + 1];
+
+    @Autowired
+    public GameMetrics(MeterRegistry meterRegistry) {
+        createNewGame = serviceTimer(meterRegistry, "createNewGame");
+        createNewGames = serviceTimer(meterRegistry, "createNewGames");
+        restartGame = serviceTimer(meterRegistry, "restartGame");
+        getGame = serviceTimer(meterRegistry, "getGame");
+        getGameUpdate = serviceTimer(meterRegistry, "getGameUpdate");
+        watchGame = serviceTimer(meterRegistry, "watchGame");
+        unwatchGame = serviceTimer(meterRegistry, "unwatchGame");
+        deleteGame = serviceTimer(meterRegistry, "deleteGame");
+        placeInGame = serviceTimer(meterRegistry, "placeInGame");
+        placeInGames = serviceTimer(meterRegistry, "placeInGames");
+
+        create = storeTimer(meterRegistry, "create");
+        createAll = storeTimer(meterRegistry, "createAll");
+        find = storeTimer(meterRegistry, "find");
+        findAll = storeTimer(meterRegistry, "findAll");
+        delete = storeTimer(meterRegistry, "delete");
+        write = storeTimer(meterRegistry, "write");
+        writeAll = storeTimer(meterRegistry, "writeAll");
+
+        engine = Timer.builder("tictactoe.engine")
+                .description("Time spent applying moves to games")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        for (Misplace misplace : Misplace.values()) {
+            rejections[misplace.ordinal()] = rejectionCounter(meterRegistry, misplace.name());
+        }
+        rejections[PlaceMove.MISSING_MARK] = rejectionCounter(meterRegistry, "MISSING_MARK");
+        rejections[PlaceMove.WRONG_MARK] = rejectionCounter(meterRegistry, "WRONG_MARK");
+        rejections[PlaceMove.MISSING_POS] = rejectionCounter(meterRegistry, "MISSING_POS");
+        rejections[PlaceMove.WRONG_POS] = rejectionCounter(meterRegistry, "WRONG_POS");
+    }
+
+    private static Timer serviceTimer(MeterRegistry meterRegistry, String method) {
+        return Timer.builder("tictactoe.service")
+                .description("Time spent in GameService methods")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer storeTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("tictactoe.store")
+                .description("Time spent in GameStore calls")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("tictactoe.rejections")
+                .description("Moves rejected, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the time since `startNanos`, a value of `System.nanoTime()`.
+     */
+    static void recordSince(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a move rejected with the given code of `PlaceMove.tryApply`.
+     */
+    void rejected(int placeCode) {
+        rejections[placeCode].increment();
+    }
+}
@@ -1,30 +1,46 @@
 package io.altr.ticTacToe.api.service.impl;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.cache.GameCacheFlusher;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.dto.PlaceResult;
 import io.altr.ticTacToe.api.entity.GameEntity;
 import io.altr.ticTacToe.api.exception.*;
-import io.altr.ticTacToe.api.repository.GameRepository;
+import io.altr.ticTacToe.api.repository.GameStore;
 import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdate;
+import io.altr.ticTacToe.api.service.GameUpdateListener;
+import io.altr.ticTacToe.api.service.GameUpdateRegistry;
 import io.altr.ticTacToe.engine.Game;
-import io.altr.ticTacToe.engine.Mark;
-import io.altr.ticTacToe.engine.Misplace;
-import io.altr.ticTacToe.engine.Pos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class GameServiceImpl implements GameService {
 
+    public static final int MAX_NEW_GAMES = 10_000;
+
     private final Logger logInfo = LoggerFactory.getLogger(GameServiceImpl.class);
-    private final GameRepository gameRepository;
+    private final GameStore gameStore;
+    private final GameCache gameCache;
+    private final GameCacheFlusher gameCacheFlusher;
+    private final GameUpdateRegistry gameUpdates;
+    private final GameMetrics gameMetrics;
 
     @Autowired
-    public GameServiceImpl(GameRepository gameRepository) {
-        this.gameRepository = gameRepository;
+    public GameServiceImpl(GameStore gameStore, GameCache gameCache, GameCacheFlusher gameCacheFlusher,
+                           GameUpdateRegistry gameUpdates, GameMetrics gameMetrics) {
+        this.gameStore = gameStore;
+        this.gameCache = gameCache;
+        this.gameCacheFlusher = gameCacheFlusher;
+        this.gameUpdates = gameUpdates;
+        this.gameMetrics = gameMetrics;
     }
 
 
@@ -32,15 +48,48 @@ public class GameServiceImpl implements GameService {
 
 
     /**
-     * Creates a new game and saves it to the repository.
+     * Creates a new game and saves it to the store.
      *
      * @return a new GameEntity instance representing the created game
      */
     public GameEntity createNewGame() {
-        GameEntity ge = new GameEntity();
-        gameRepository.save(ge);
-        logInfo.info("New Game created with gameId: {}", ge.getGameId());
-        return ge;
+        long start = System.nanoTime();
+        try {
+            long createStart = System.nanoTime();
+            GameEntity ge = gameStore.create();
+            GameMetrics.recordSince(gameMetrics.create, createStart);
+            logInfo.info("New Game created with gameId: {}", ge.getGameId());
+            return ge;
+        } finally {
+            GameMetrics.recordSince(gameMetrics.createNewGame, start);
+        }
+    }
+
+    /**
+     * Creates many new games at once.
+     * The gameIds come from in-memory blocks of the id sequence, and the games are inserted in
+     * JDBC batches of `hibernate.jdbc.batch_size`, all within one transaction.
+     *
+     * @param count the number of games to create, between 1 and `MAX_NEW_GAMES`
+     * @return the created games, in the order their gameIds were allocated
+     * @throws WrongFieldNameException if the count is out of range
+     */
+    @Transactional
+    public List<GameEntity> createNewGames(int count) {
+        long start = System.nanoTime();
+        try {
+            if (count < 1 || count > MAX_NEW_GAMES) {
+                throw new WrongFieldNameException("Parameter: \"count\" should be between 1 and " + MAX_NEW_GAMES + ".");
+            }
+
+            long createStart = System.nanoTime();
+            List<GameEntity> gameEntities = gameStore.createAll(count);
+            GameMetrics.recordSince(gameMetrics.createAll, createStart);
+            logInfo.info("{} new Games created with gameIds from: {}", count, gameEntities.get(0).getGameId());
+            return gameEntities;
+        } finally {
+            GameMetrics.recordSince(gameMetrics.createNewGames, start);
+        }
     }
 
 
@@ -49,19 +98,30 @@ public class GameServiceImpl implements GameService {
 
     /**
      * Restarts a game by creating a new game instance and overwriting the existing one.
+     * The game is read from the cache, or once from the repository on a miss, and written once.
      *
      * @param gameId the ID of the game to restart
      * @return the newly restarted game instance
      * @throws GameOfIdNotFoundException if no game with the given ID is found
+     * @throws OptimisticLockingFailureException if the game was changed by another request in the meantime
      */
     public Game restartGame(Integer gameId) {
-        Optional<GameEntity> gameEnOp = gameRepository.findById(gameId);
-        if (gameEnOp.isEmpty()) {
-            logInfo.info("Failed to restart game with gameId: {}", gameId);
-            throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+        long start = System.nanoTime();
+        try {
+            long cached = loadGame(gameId);
+            if (cached == GameCache.MISSING) {
+                logInfo.debug("Failed to restart game with gameId: {}", gameId);
+                throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+            }
+
+            Game game = new Game();
+            int version = overwriteGame(gameId, cached, game, GameStore.RESTART);
+            gameUpdates.publish(gameId, version, game);
+            logInfo.debug("Successfully restarted game with gameId: {}", gameId);
+            return game;
+        } finally {
+            GameMetrics.recordSince(gameMetrics.restartGame, start);
         }
-        logInfo.info("Successfully restarted game with gameId: {}", gameId);
-        return overwriteGame(gameId, new Game());
     }
 
 
@@ -69,21 +129,81 @@ public class GameServiceImpl implements GameService {
 
 
     /**
-     * Retrieves a game by its ID.
+     * Retrieves a game by its ID, from the cache when it holds the game.
      *
      * @param gameId the ID of the game to retrieve
      * @return the game instance associated with the provided ID
      * @throws GameOfIdNotFoundException if no game with the given ID is found
      */
     public Game getGame(Integer gameId) {
-        Optional<GameEntity> gameEnOp = gameRepository.findById(gameId);
-        if (gameEnOp.isEmpty()) {
-            logInfo.info("Failed to retrieve game with gameId: {}", gameId);
+        long start = System.nanoTime();
+        try {
+            long cached = loadGame(gameId);
+            if (cached == GameCache.MISSING) {
+                logInfo.debug("Failed to retrieve game with gameId: {}", gameId);
+                throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+            }
+
+            logInfo.debug("Successfully retrieved game with gameId: {}", gameId);
+            return new Game(GameCache.tileMaskOf(cached));
+        } finally {
+            GameMetrics.recordSince(gameMetrics.getGame, start);
+        }
+    }
+
+    /**
+     * Retrieves a game together with its version, in the form pushed to the listeners of the game.
+     *
+     * @param gameId the ID of the game to retrieve
+     * @return the current state and version of the game
+     * @throws GameOfIdNotFoundException if no game with the given ID is found
+     */
+    public GameUpdate getGameUpdate(Integer gameId) {
+        long start = System.nanoTime();
+        try {
+            return loadGameUpdate(gameId);
+        } finally {
+            GameMetrics.recordSince(gameMetrics.getGameUpdate, start);
+        }
+    }
+
+    private GameUpdate loadGameUpdate(Integer gameId) {
+        long cached = loadGame(gameId);
+        if (cached == GameCache.MISSING) {
+            logInfo.debug("Failed to retrieve game with gameId: {}", gameId);
             throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
         }
+        return gameUpdates.toUpdate(gameId, GameCache.versionOf(cached), new Game(GameCache.tileMaskOf(cached)));
+    }
+
+    /**
+     * Registers a listener for the changes of a game, and returns the current state of the game.
+     * The listener is registered before the game is read, so no change made in between is missed,
+     * but the listener may get a change before the returned state is used. Compare versions to
+     * tell which one is newer.
+     *
+     * @param gameId the ID of the game to watch
+     * @param listener called with the new state of the game after every move or restart
+     * @return the current state and version of the game
+     * @throws GameOfIdNotFoundException if no game with the given ID is found
+     */
+    public GameUpdate watchGame(Integer gameId, GameUpdateListener listener) {
+        long start = System.nanoTime();
+        gameUpdates.subscribe(gameId, listener);
+        try {
+            return loadGameUpdate(gameId);
+        } catch (GameOfIdNotFoundException e) {
+            gameUpdates.unsubscribe(gameId, listener);
+            throw e;
+        } finally {
+            GameMetrics.recordSince(gameMetrics.watchGame, start);
+        }
+    }
 
-        logInfo.info("Successfully retrieved game with gameId: {}", gameId);
-        return convertToDomain(gameEnOp.get());
+    public void unwatchGame(Integer gameId, GameUpdateListener listener) {
+        long start = System.nanoTime();
+        gameUpdates.unsubscribe(gameId, listener);
+        GameMetrics.recordSince(gameMetrics.unwatchGame, start);
     }
 
 
@@ -91,22 +211,29 @@ public class GameServiceImpl implements GameService {
 
 
     /**
-     * Deletes a game from the repository by its ID.
+     * Deletes a game from the store by its ID.
      *
      * @param gameId the ID of the game to delete
      * @return the deleted GameEntity instance
      * @throws GameOfIdNotFoundException if no game with the given ID is found
      */
     public GameEntity deleteGame(Integer gameId) {
-        Optional<GameEntity> gameEnOp = gameRepository.findById(gameId);
-        if (gameEnOp.isEmpty()) {
-            logInfo.info("Failed to delete game with gameId: {}", gameId);
-            throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
-        }
+        long start = System.nanoTime();
+        try {
+            long deleteStart = System.nanoTime();
+            GameEntity ge = gameStore.delete(gameId);
+            GameMetrics.recordSince(gameMetrics.delete, deleteStart);
+            if (ge == null) {
+                logInfo.debug("Failed to delete game with gameId: {}", gameId);
+                throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+            }
 
-        logInfo.info("Successfully deleted game with gameId: {}", gameId);
-        gameRepository.deleteById(gameId);
-        return gameEnOp.get();
+            logInfo.info("Successfully deleted game with gameId: {}", gameId);
+            gameCache.invalidate(gameId);
+            return ge;
+        } finally {
+            GameMetrics.recordSince(gameMetrics.deleteGame, start);
+        }
     }
 
 
@@ -115,87 +242,262 @@ public class GameServiceImpl implements GameService {
 
     /**
      * Places a mark (X or O) at a given position in the game.
+     * The game is read from the cache, or once from the repository on a miss, and written once.
+     * The returned state is the in-memory game the move was applied to. The write only succeeds if
+     * the version of the game is still the one that was read, so of two concurrent moves only one
+     * is applied.
      *
      * @param gameId the ID of the game in which to place the mark
-     * @param objectNode JSON object containing the mark and position data
+     * @param placeRequest the mark and position to place
      * @return the updated game instance after placing the mark
      * @throws GameOfIdNotFoundException if no game with the given ID is found
-     * @throws MissingFieldOfNameException if the "mark" or "pos" fields are missing in the JSON object
+     * @throws MissingFieldOfNameException if the "mark" or "pos" fields are missing in the request
      * @throws WrongFieldNameException if the values for "mark" or "pos" are invalid
      * @throws GameStateWonException if the game has already ended
      * @throws GameStateOutOfTurnException if it is not the correct turn for the mark being placed
+     * @throws OptimisticLockingFailureException if the game was changed by another request in the meantime
      */
-    public Game placeInGame(Integer gameId, ObjectNode objectNode) {
-        Optional<GameEntity> gameEnOp = gameRepository.findById(gameId);
-        if (gameEnOp.isEmpty()) {
-            logPlaceFail(gameId);
-            throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+    public Game placeInGame(Integer gameId, PlaceRequest placeRequest) {
+        long start = System.nanoTime();
+        try {
+            long cached = loadGame(gameId);
+            if (cached == GameCache.MISSING) {
+                logPlaceFail(gameId);
+                throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+            }
+
+            long engineStart = System.nanoTime();
+            Game game = new Game(GameCache.tileMaskOf(cached));
+            int placeCode = PlaceMove.tryApply(game, placeRequest);
+            GameMetrics.recordSince(gameMetrics.engine, engineStart);
+            if (placeCode != Game.PLACED) {
+                gameMetrics.rejected(placeCode);
+                throw PlaceMove.reject(gameId, placeCode, game, placeRequest);
+            }
+
+            int version = overwriteGame(gameId, cached, game, GameStore.move(placeRequest.mark(), placeRequest.pos()));
+            gameUpdates.publish(gameId, version, game);
+            logInfo.debug("Successfully placed mark in game with gameId: {}", gameId);
+            return game;
+        } finally {
+            GameMetrics.recordSince(gameMetrics.placeInGame, start);
         }
+    }
+
+    private void logPlaceFail(Integer gameId) {
+        logInfo.debug("Failed to place in game with gameId: {}", gameId);
+    }
 
-        Game game = convertToDomain(gameEnOp.get());
 
-        Mark mark;
-        Pos pos;
+
+
+
+    /**
+     * Places many marks, across many games, in one call.
+     * The moves are grouped by gameId and applied in the order given. Games missing from the cache
+     * are loaded with a single query, and every changed game is written once, in one JDBC batch
+     * within a single transaction. A rejected move doesn't stop the others: each move gets its own
+     * result, in the order of the given list.
+     *
+     * @param placeRequests the gameId, mark and position of each move
+     * @return one result per move, holding the game state right after the move, or why it was rejected
+     */
+    public List<PlaceResult> placeInGames(List<PlaceRequest> placeRequests) {
+        long start = System.nanoTime();
         try {
-            mark = Mark.valueOf(objectNode.get("mark").asText());
-        } catch (NullPointerException e) {
-            logPlaceFail(gameId);
-            throw new MissingFieldOfNameException("Given JSON has no \"mark\" field.");
-        } catch (IllegalArgumentException e) {
-            logPlaceFail(gameId);
-            throw new WrongFieldNameException("Json field: \"mark\" is of wrong value. Should be: \"X\" or \"O\".");
+            return placeAll(placeRequests);
+        } finally {
+            GameMetrics.recordSince(gameMetrics.placeInGames, start);
         }
+    }
 
-        try {
-            pos = Pos.valueOf(objectNode.get("pos").asText());
-        } catch (NullPointerException e) {
-            logPlaceFail(gameId);
-            throw new MissingFieldOfNameException("Given JSON has no \"pos\" field.");
-        } catch (IllegalArgumentException e) {
-            logPlaceFail(gameId);
-            throw new WrongFieldNameException("Json field: \"pos\" is of wrong value.");
-        }
-
-        Optional<Misplace> misplaceOp = game.doPlace(mark, pos);
-        if (misplaceOp.isPresent()) {
-            Misplace misplace = misplaceOp.get();
-            if (misplace == Misplace.NONE_PLACE) {
-                logPlaceFail(gameId);
-                throw new WrongFieldNameException("Json field: \"mark\" is of \"NONE\".");
+    private List<PlaceResult> placeAll(List<PlaceRequest> placeRequests) {
+        PlaceResult[] results = new PlaceResult[placeRequests.size()];
+        Map<Integer, List<Integer>> movesByGame = new LinkedHashMap<>();
+        for (int i = 0; i < placeRequests.size(); i++) {
+            Integer gameId = placeRequests.get(i).gameId();
+            if (gameId == null) {
+                results[i] = PlaceResult.rejected(null, "Given JSON has no \"gameId\" field.", null);
+                continue;
             }
-            if (misplace == Misplace.GAME_ENDED) {
-                logPlaceFail(gameId);
-                throw new GameStateWonException("Game has already ended. Mark \"" + game.getWhoWon() + "\" has won.");
+            movesByGame.computeIfAbsent(gameId, k -> new ArrayList<>()).add(i);
+        }
+
+        Map<Integer, Long> cachedGames = loadGames(movesByGame.keySet());
+
+        long engineStart = System.nanoTime();
+        int changed = 0;
+        int[] gameIds = new int[movesByGame.size()];
+        int[] versions = new int[movesByGame.size()];
+        int[] tileMasks = new int[movesByGame.size()];
+        int[][] placedMoves = new int[movesByGame.size()][];
+        for (Map.Entry<Integer, List<Integer>> moves : movesByGame.entrySet()) {
+            Integer gameId = moves.getKey();
+            Long cached = cachedGames.get(gameId);
+            if (cached == null) {
+                for (int i : moves.getValue()) {
+                    results[i] = PlaceResult.rejected(gameId, "No game with gameId: \"" + gameId + "\" was found.", null);
+                }
+                continue;
             }
-            if (misplace == Misplace.OUT_OF_TURN) {
-                logPlaceFail(gameId);
-                throw new GameStateOutOfTurnException("Can't place the mark of: \"" + mark + "\" now. It's not your turn.");
+
+            Game game = new Game(GameCache.tileMaskOf(cached));
+            int[] placed = new int[moves.getValue().size()];
+            int placedCount = 0;
+            for (int i : moves.getValue()) {
+                PlaceRequest placeRequest = placeRequests.get(i);
+                int placeCode = PlaceMove.tryApply(game, placeRequest);
+                if (placeCode == Game.PLACED) {
+                    results[i] = PlaceResult.placed(gameId, new Game(game.getTileMask()));
+                    placed[placedCount++] = GameStore.move(placeRequest.mark(), placeRequest.pos());
+                } else {
+                    gameMetrics.rejected(placeCode);
+                    String message = PlaceMove.messageOf(placeCode, game, placeRequest);
+                    results[i] = PlaceResult.rejected(gameId, message, new Game(game.getTileMask()));
+                }
             }
-            if (misplaceOp.get() == Misplace.TILE_TAKEN) {
-                logPlaceFail(gameId);
-                throw new WrongFieldNameException("Pos: \"" + pos + "\" is already taken.");
+            if (placedCount == 0) continue;
+
+            gameIds[changed] = gameId;
+            versions[changed] = GameCache.versionOf(cached);
+            tileMasks[changed] = game.getTileMask();
+            placedMoves[changed] = Arrays.copyOf(placed, placedCount);
+            changed++;
+        }
+        GameMetrics.recordSince(gameMetrics.engine, engineStart);
+
+        int[] written = overwriteGames(gameIds, tileMasks, versions, placedMoves, changed);
+        for (int g = 0; g < changed; g++) {
+            if (written[g] != GameStore.CONFLICT) {
+                gameUpdates.publish(gameIds[g], written[g], new Game(tileMasks[g]));
+                continue;
+            }
+            String message = "Game with gameId: \"" + gameIds[g] + "\" was changed in the meantime.";
+            for (int i : movesByGame.get(gameIds[g])) {
+                if (results[i].placed()) results[i] = PlaceResult.rejected(gameIds[g], message, null);
             }
         }
 
-        logInfo.info("Successfully placed mark in game with gameId: {}", gameId);
-        return overwriteGame(gameId, game);
+        logInfo.debug("Placed batch of {} moves across {} games", placeRequests.size(), movesByGame.size());
+        return Arrays.asList(results);
     }
 
-    private void logPlaceFail(Integer gameId) {
-        logInfo.info("Failed to place in game with gameId: {}", gameId);
+
+
+
+
+    /**
+     * Looks the game up in the cache, and loads it from the store into the cache on a miss.
+     *
+     * @return the cached tileMask and version of the game, or `GameCache.MISSING` if there is no such game
+     */
+    private long loadGame(Integer gameId) {
+        long cached = gameCache.get(gameId);
+        if (cached != GameCache.MISSING) return cached;
+
+        long findStart = System.nanoTime();
+        long found = gameStore.find(gameId);
+        GameMetrics.recordSince(gameMetrics.find, findStart);
+        if (found == GameCache.MISSING) return GameCache.MISSING;
+
+        gameCache.putIfNewer(gameId, GameCache.tileMaskOf(found), GameCache.versionOf(found));
+        return found;
     }
 
+    /**
+     * Looks the games up in the cache, and loads all the missing ones from the store at once.
+     *
+     * @return the cached tileMask and version of every game found, keyed by gameId
+     */
+    private Map<Integer, Long> loadGames(Collection<Integer> gameIds) {
+        Map<Integer, Long> cachedGames = new HashMap<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Integer gameId : gameIds) {
+            long cached = gameCache.get(gameId);
+            if (cached == GameCache.MISSING) misses.add(gameId);
+            else cachedGames.put(gameId, cached);
+        }
+        if (misses.isEmpty()) return cachedGames;
+
+        long findStart = System.nanoTime();
+        Map<Integer, Long> found = gameStore.findAll(misses);
+        GameMetrics.recordSince(gameMetrics.findAll, findStart);
+        for (Map.Entry<Integer, Long> game : found.entrySet()) {
+            gameCache.putIfNewer(game.getKey(), GameCache.tileMaskOf(game.getValue()), GameCache.versionOf(game.getValue()));
+        }
+        cachedGames.putAll(found);
+        return cachedGames;
+    }
 
+    /**
+     * Writes the game, and the move that changed it, over the cached version it was computed from.
+     * In write-behind mode only the cache is updated, and the game is flushed to the repository
+     * later by the `GameCacheFlusher`, without its moves. Otherwise the store is written first.
+     *
+     * @return the new version of the game
+     * @throws OptimisticLockingFailureException if the game was changed by another request in the meantime
+     */
+    private int overwriteGame(Integer gameId, long cached, Game game, int move) {
+        int version = GameCache.versionOf(cached);
+        if (gameCache.isWriteBehind()) {
+            int written = writeBehind(gameId, version, game.getTileMask());
+            if (written == GameStore.CONFLICT) {
+                throw new OptimisticLockingFailureException("Game with gameId: \"" + gameId + "\" was changed in the meantime.");
+            }
+            return written;
+        }
 
+        long writeStart = System.nanoTime();
+        int written = gameStore.write(gameId, version, game.getTileMask(), move);
+        GameMetrics.recordSince(gameMetrics.write, writeStart);
+        if (written == GameStore.CONFLICT) {
+            gameCache.invalidate(gameId);
+            throw new OptimisticLockingFailureException("Game with gameId: \"" + gameId + "\" was changed in the meantime.");
+        }
+        gameCache.putIfNewer(gameId, game.getTileMask(), written);
+        return written;
+    }
 
+    /**
+     * Writes the first `count` games over the cached versions they were computed from, like
+     * `overwriteGame` does for one game, with all store writes sent as one batch.
+     *
+     * @return for each game, its new version, or `GameStore.CONFLICT` if it was changed by another request in the meantime
+     */
+    private int[] overwriteGames(int[] gameIds, int[] tileMasks, int[] versions, int[][] moves, int count) {
+        if (gameCache.isWriteBehind()) {
+            int[] written = new int[count];
+            for (int g = 0; g < count; g++) {
+                written[g] = writeBehind(gameIds[g], versions[g], tileMasks[g]);
+            }
+            return written;
+        }
+        if (count == 0) return new int[0];
+
+        long writeStart = System.nanoTime();
+        int[] written = gameStore.writeAll(gameIds, versions, tileMasks, moves, count);
+        GameMetrics.recordSince(gameMetrics.writeAll, writeStart);
+        for (int g = 0; g < count; g++) {
+            if (written[g] != GameStore.CONFLICT) gameCache.putIfNewer(gameIds[g], tileMasks[g], written[g]);
+            else gameCache.invalidate(gameIds[g]);
+        }
+        return written;
+    }
 
-    private Game overwriteGame(Integer gameId, Game game) {
-        Optional<GameEntity> gameEnOp = gameRepository.findById(gameId);
-        if (gameEnOp.isEmpty()) {
-            throw new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+    /**
+     * Writes a game to the cache only, marked dirty, over the version it was computed from. A game
+     * evicted since it was read is read again from the store, and cached again if it's still at
+     * that version. When its segment of the cache is full of dirty games, they are flushed first.
+     *
+     * @return the new version of the game, or `GameStore.CONFLICT` if it was changed by another request in the meantime
+     */
+    private int writeBehind(int gameId, int version, int tileMask) {
+        while (true) {
+            int result = gameCache.compareAndSetDirty(gameId, version, tileMask, () -> gameStore.find(gameId));
+            if (result == GameCache.SET) return version + 1;
+            if (result == GameCache.CHANGED) return GameStore.CONFLICT;
+            gameCacheFlusher.flush();
         }
-        gameRepository.save(convertToEntity(gameId, game));
-        return getGame(gameId);
     }
 
 
@@ -206,10 +508,6 @@ public class GameServiceImpl implements GameService {
         return new GameEntity(game.getTileMask());
     }
 
-    private GameEntity convertToEntity(Integer gameId, Game game) {
-        return new GameEntity(gameId, game.getTileMask());
-    }
-
     private Game convertToDomain(GameEntity gameEntity) {
         return new Game(gameEntity.getTileMask());
     }
@@ -0,0 +1,116 @@
+package io.altr.ticTacToe.api.service.impl;
+
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.exception.*;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Misplace;
+import io.altr.ticTacToe.engine.Pos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a move request to a game. Shared by the blocking and the reactive game services,
+ * so both reject moves with the same exceptions and messages.
+ *
+ * Every way a move can be rejected has a single message, so each rejection is created once, as
+ * an exception without a stack trace, and the same instance is thrown every time.
+ */
+final class PlaceMove {
+    // Rejections of the request itself, numbered after the codes of `Misplace`.
+    static final int MISSING_MARK = Misplace.values().length;
+    static final int WRONG_MARK = MISSING_MARK + 1;
+    static final int MISSING_POS = MISSING_MARK + 2;
+    static final int WRONG_POS = MISSING_MARK + 3;
+
+    private static final Logger logInfo = LoggerFactory.getLogger(PlaceMove.class);
+    private static final Mark[] marks = Mark.values();
+    private static final Pos[] positions = Pos.values();
+
+    private static final RuntimeException missingMark = new MissingFieldOfNameException("Given JSON has no \"mark\" field.", false);
+    private static final RuntimeException wrongMark = new WrongFieldNameException("Json field: \"mark\" is of wrong value. Should be: \"X\" or \"O\".", false);
+    private static final RuntimeException missingPos = new MissingFieldOfNameException("Given JSON has no \"pos\" field.", false);
+    private static final RuntimeException wrongPos = new WrongFieldNameException("Json field: \"pos\" is of wrong value.", false);
+    private static final RuntimeException nonePlace = new WrongFieldNameException("Json field: \"mark\" is of \"NONE\".", false);
+    // Indexed by the ordinal of the winner, of the mark out of turn, and of the taken position.
+    private static final RuntimeException[] gameEnded = new RuntimeException[marks.length];
+    private static final RuntimeException[] outOfTurn = new RuntimeException[marks.length];
+    private static final RuntimeException[] tileTaken = new RuntimeException[positions.length];
+
+    static {
+        for (Mark mark : new Mark[]{Mark.X, Mark.O}) {
+            gameEnded[mark.ordinal()] = new GameStateWonException("Game has already ended. Mark \"" + mark + "\" has won.", false);
+            outOfTurn[mark.ordinal()] = new GameStateOutOfTurnException("Can't place the mark of: \"" + mark + "\" now. It's not your turn.", false);
+        }
+        for (Pos pos : positions) {
+            tileTaken[pos.ordinal()] = new WrongFieldNameException("Pos: \"" + pos + "\" is already taken.", false);
+        }
+    }
+
+    private PlaceMove() {
+    }
+
+    /**
+     * Places the mark of the request in the given game.
+     *
+     * @throws MissingFieldOfNameException if the "mark" or "pos" fields are missing in the request
+     * @throws WrongFieldNameException if the values for "mark" or "pos" are invalid, or the tile is taken
+     * @throws GameStateWonException if the game has already ended
+     * @throws GameStateOutOfTurnException if it is not the correct turn for the mark being placed
+     */
+    static void apply(Integer gameId, Game game, PlaceRequest placeRequest) {
+        int placeCode = tryApply(game, placeRequest);
+        if (placeCode == Game.PLACED) return;
+
+        throw reject(gameId, placeCode, game, placeRequest);
+    }
+
+    /**
+     * Logs that `tryApply` rejected the request, and returns the exception to throw for it.
+     *
+     * @param placeCode a code returned by `tryApply`, other than `Game.PLACED`
+     */
+    static RuntimeException reject(Integer gameId, int placeCode, Game game, PlaceRequest placeRequest) {
+        logInfo.debug("Failed to place in game with gameId: {}", gameId);
+        return rejectionOf(placeCode, game, placeRequest);
+    }
+
+    /**
+     * Places the mark of the request in the given game, without throwing when it can't.
+     *
+     * @return `Game.PLACED`, the code of the `Misplace` the game reported, or one of the
+     *         rejection codes of this class if the request has no usable mark or position
+     */
+    static int tryApply(Game game, PlaceRequest placeRequest) {
+        if (placeRequest.mark() == PlaceRequest.MISSING) return MISSING_MARK;
+        if (placeRequest.mark() == PlaceRequest.INVALID) return WRONG_MARK;
+        if (placeRequest.pos() == PlaceRequest.MISSING) return MISSING_POS;
+        if (placeRequest.pos() == PlaceRequest.INVALID) return WRONG_POS;
+        return game.tryPlace(marks[placeRequest.mark()], positions[placeRequest.pos()]);
+    }
+
+    /**
+     * Describes why `tryApply` rejected the request, for the client.
+     *
+     * @param placeCode a code returned by `tryApply`, other than `Game.PLACED`
+     */
+    static String messageOf(int placeCode, Game game, PlaceRequest placeRequest) {
+        return rejectionOf(placeCode, game, placeRequest).getMessage();
+    }
+
+    /**
+     * Looks up the preallocated exception for a code returned by `tryApply`, other than `Game.PLACED`.
+     */
+    private static RuntimeException rejectionOf(int placeCode, Game game, PlaceRequest placeRequest) {
+        if (placeCode == MISSING_MARK) return missingMark;
+        if (placeCode == WRONG_MARK) return wrongMark;
+        if (placeCode == MISSING_POS) return missingPos;
+        if (placeCode == WRONG_POS) return wrongPos;
+        return switch (Misplace.fromCode(placeCode)) {
+            case NONE_PLACE -> nonePlace;
+            case GAME_ENDED -> gameEnded[game.getWhoWon().ordinal()];
+            case OUT_OF_TURN -> outOfTurn[placeRequest.mark()];
+            case TILE_TAKEN -> tileTaken[placeRequest.pos()];
+        };
+    }
+}
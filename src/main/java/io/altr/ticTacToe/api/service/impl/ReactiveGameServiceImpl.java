@@ -0,0 +1,180 @@
+package io.altr.ticTacToe.api.service.impl;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.api.exception.*;
+import io.altr.ticTacToe.api.repository.ReactiveGameRepository;
+import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdateRegistry;
+import io.altr.ticTacToe.api.service.ReactiveGameService;
+import io.altr.ticTacToe.engine.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Reactive variant of `GameServiceImpl`, active with the Spring profile "reactive".
+ * Games are read and written over R2DBC through the same `GameCache` and `GameUpdateRegistry`,
+ * so it behaves like the blocking service. Only game creation stays on JPA, run on the bounded
+ * elastic scheduler, so both services allocate gameIds from the same pooled sequence.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveGameServiceImpl implements ReactiveGameService {
+
+    private final Logger logInfo = LoggerFactory.getLogger(ReactiveGameServiceImpl.class);
+    private final ReactiveGameRepository gameRepository;
+    private final GameService gameService;
+    private final GameCache gameCache;
+    private final GameUpdateRegistry gameUpdates;
+
+    @Autowired
+    public ReactiveGameServiceImpl(ReactiveGameRepository gameRepository, GameService gameService,
+                                   GameCache gameCache, GameUpdateRegistry gameUpdates) {
+        this.gameRepository = gameRepository;
+        this.gameService = gameService;
+        this.gameCache = gameCache;
+        this.gameUpdates = gameUpdates;
+    }
+
+
+
+
+
+    public Mono<GameEntity> createNewGame() {
+        return Mono.fromCallable(gameService::createNewGame).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<List<GameEntity>> createNewGames(int count) {
+        return Mono.fromCallable(() -> gameService.createNewGames(count)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+
+
+
+
+    /**
+     * Restarts a game by overwriting it with a new game instance.
+     *
+     * @param gameId the ID of the game to restart
+     * @return the restarted game, or an error: `GameOfIdNotFoundException` if no game with the given
+     *         ID is found, `OptimisticLockingFailureException` if it was changed in the meantime
+     */
+    public Mono<Game> restartGame(Integer gameId) {
+        return loadGame(gameId)
+                .flatMap(cached -> overwriteGame(gameId, cached, new Game()))
+                .doOnNext(game -> logInfo.debug("Successfully restarted game with gameId: {}", gameId));
+    }
+
+
+
+
+
+    /**
+     * Retrieves a game by its ID, from the cache when it holds the game.
+     *
+     * @param gameId the ID of the game to retrieve
+     * @return the game, or a `GameOfIdNotFoundException` error if no game with the given ID is found
+     */
+    public Mono<Game> getGame(Integer gameId) {
+        return loadGame(gameId).map(cached -> new Game(GameCache.tileMaskOf(cached)));
+    }
+
+
+
+
+
+    /**
+     * Deletes a game by its ID.
+     *
+     * @param gameId the ID of the game to delete
+     * @return the deleted game entity, or a `GameOfIdNotFoundException` error if no game with the given ID is found
+     */
+    public Mono<GameEntity> deleteGame(Integer gameId) {
+        return gameRepository.deleteById(gameId).flatMap(deleted -> {
+            gameCache.invalidate(gameId);
+            if (deleted == 0) {
+                logInfo.debug("Failed to delete game with gameId: {}", gameId);
+                return Mono.error(new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found."));
+            }
+            logInfo.info("Successfully deleted game with gameId: {}", gameId);
+            return Mono.just(new GameEntity(gameId, 0));
+        });
+    }
+
+
+
+
+
+    /**
+     * Places a mark (X or O) at a given position in the game, like `GameServiceImpl.placeInGame`.
+     *
+     * @param gameId the ID of the game in which to place the mark
+     * @param placeRequest the mark and position to place
+     * @return the updated game, or the same errors `GameServiceImpl.placeInGame` throws
+     */
+    public Mono<Game> placeInGame(Integer gameId, PlaceRequest placeRequest) {
+        return loadGame(gameId).flatMap(cached -> {
+            Game game = new Game(GameCache.tileMaskOf(cached));
+            PlaceMove.apply(gameId, game, placeRequest);
+            return overwriteGame(gameId, cached, game);
+        }).doOnNext(game -> logInfo.debug("Successfully placed mark in game with gameId: {}", gameId));
+    }
+
+
+
+
+
+    /**
+     * Looks the game up in the cache, and loads it from the repository into the cache on a miss.
+     *
+     * @return the tileMask and version of the game, or a `GameOfIdNotFoundException` error
+     */
+    private Mono<Long> loadGame(Integer gameId) {
+        long cached = gameCache.get(gameId);
+        if (cached != GameCache.MISSING) return Mono.just(cached);
+
+        return gameRepository.findTileMaskAndVersion(gameId)
+                .doOnNext(loaded -> gameCache.putIfNewer(gameId, GameCache.tileMaskOf(loaded), GameCache.versionOf(loaded)))
+                .switchIfEmpty(Mono.error(() -> {
+                    logInfo.debug("Failed to find game with gameId: {}", gameId);
+                    return new GameOfIdNotFoundException("No game with gameId: \"" + gameId + "\" was found.");
+                }));
+    }
+
+    /**
+     * Writes the game over the cached version it was computed from, like `GameServiceImpl` does,
+     * and publishes the new state to the listeners of the game.
+     *
+     * @return the written game, or an `OptimisticLockingFailureException` error if the game was
+     *         changed by another request in the meantime
+     */
+    private Mono<Game> overwriteGame(Integer gameId, long cached, Game game) {
+        int version = GameCache.versionOf(cached);
+        if (gameCache.isWriteBehind()) {
+            if (!gameCache.compareAndSet(gameId, version, game.getTileMask(), true)) {
+                return Mono.error(new OptimisticLockingFailureException("Game with gameId: \"" + gameId + "\" was changed in the meantime."));
+            }
+            gameUpdates.publish(gameId, version + 1, game);
+            return Mono.just(game);
+        }
+
+        return gameRepository.compareAndSetTileMask(gameId, version, game.getTileMask()).flatMap(updated -> {
+            if (updated == 0) {
+                gameCache.invalidate(gameId);
+                return Mono.error(new OptimisticLockingFailureException("Game with gameId: \"" + gameId + "\" was changed in the meantime."));
+            }
+            gameCache.putIfNewer(gameId, game.getTileMask(), version + 1);
+            gameUpdates.publish(gameId, version + 1, game);
+            return Mono.just(game);
+        });
+    }
+}
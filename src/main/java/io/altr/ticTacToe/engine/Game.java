@@ -6,6 +6,8 @@ import io.altr.ticTacToe.api.entity.GameEntity;
 import java.util.Optional;
 
 public class Game {
+    public static final int PLACED = -1;
+
     @JsonIgnore
     private int tileMask = 0b00_00_00__00_00_00__00_00_00;
     private Mark whoWon = Mark.NONE;
@@ -30,14 +32,8 @@ public class Game {
 
     public Game(int tileMask){
         setTileMask(tileMask);
-        int xNum = 0;
-        int oNum = 0;
-        int mask = 0;
-        for(int i=0; i<9; i++){
-            mask = ((tileMask >> i*2) & 0b11);
-            if(mask == Mark.X.mask) xNum++;
-            else if(mask == Mark.O.mask) oNum++;
-        }
+        int xNum = Integer.bitCount(WinTable.occupancy(tileMask, Mark.X));
+        int oNum = Integer.bitCount(WinTable.occupancy(tileMask, Mark.O));
 
         this.turnOf = xNum == oNum ? Mark.X : Mark.O;
 
@@ -123,35 +119,81 @@ public class Game {
      *
      * This method handles the logic of placing a mark on the board, ensuring that the move is valid
      * according to the rules of the game. It checks if the game has already been won, if the move is
-     * being made out of turn, and if the selected tile is already occupied.
+     * being made out of turn, and if the selected tile is already occupied. Unlike `doPlace`, the
+     * outcome is reported as a primitive status code, so a move allocates nothing.
      *
      * @param mark - The `Mark` to be placed (X or O).
      * @param pos - The position on the board (0-8) where the mark should be placed.
-     * @return An `Optional<Misplace>` indicating if the move was invalid. If the move is valid,
-     *         the Optional will be empty. If invalid, it will contain a `Misplace` enum value
-     *         describing the reason (e.g., GAME_ENDED, TILE_TAKEN, etc.).
+     * @return `PLACED` if the move was valid, otherwise the code of the `Misplace` describing
+     *         the reason, which can be turned back into the enum with `Misplace.fromCode`.
      *
      * <br>Example usage:
      * <pre>
-     *     Optional<Misplace> result = game.doPlace(Mark.X, 4); // Tries to place an X in the center <br>
-     *     if (result.isPresent()) { <br>
+     *     int code = game.tryPlace(Mark.X, 4); // Tries to place an X in the center <br>
+     *     if (code != Game.PLACED) { <br>
      *         // Handle invalid move <br>
      *     } <br>
      * </pre>
      */
-    Optional<Misplace> doPlace(Mark mark, int pos){
-        if (whoWon != Mark.NONE) return Optional.of(Misplace.GAME_ENDED);
-        if (mark == Mark.NONE) return Optional.of(Misplace.NONE_PLACE);
-        if (mark != turnOf) return Optional.of(Misplace.OUT_OF_TURN);
+    int tryPlace(Mark mark, int pos){
+        if (whoWon != Mark.NONE) return Misplace.GAME_ENDED.ordinal();
+        if (mark == Mark.NONE) return Misplace.NONE_PLACE.ordinal();
+        if (mark != turnOf) return Misplace.OUT_OF_TURN.ordinal();
         if ( ((tileMask >> pos*2) & 0b11) != 0b00)
-            return Optional.of(Misplace.TILE_TAKEN);
+            return Misplace.TILE_TAKEN.ordinal();
         tileMask |= mark.mask << pos*2;
 
         if(turnOf == Mark.X) turnOf = Mark.O;
         else turnOf = Mark.X;
 
         if (hasWon(mark)) whoWon = mark;
-        return Optional.empty();
+        return PLACED;
+    }
+
+    /**
+     * Places the specified mark on the game board at the specified position using a `Pos` enum.
+     *
+     * This is an overloaded version of `tryPlace` that takes a `Pos` enum instead of an integer
+     * position.
+     *
+     * @param mark - The `Mark` to be placed (X or O).
+     * @param pos - The `Pos` enum representing the position on the board (e.g., `Pos.a3` for the top-left corner).
+     * @return `PLACED` if the move was valid, otherwise the code of the `Misplace` describing the reason.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     int code = game.tryPlace(Mark.X, Pos.b2); // Tries to place an X in the center <br>
+     * </pre>
+     */
+    public int tryPlace(Mark mark, Pos pos){
+        return tryPlace(mark, pos.val);
+    }
+
+
+
+    /**
+     * Places the specified mark on the game board at the specified position if all conditions are met.
+     *
+     * This is a thin wrapper over `tryPlace`, kept for callers that prefer an `Optional`.
+     *
+     * @param mark - The `Mark` to be placed (X or O).
+     * @param pos - The position on the board (0-8) where the mark should be placed.
+     * @return An `Optional<Misplace>` indicating if the move was invalid. If the move is valid,
+     *         the Optional will be empty. If invalid, it will contain a `Misplace` enum value
+     *         describing the reason (e.g., GAME_ENDED, TILE_TAKEN, etc.).
+     *
+     * <br>Example usage:
+     * <pre>
+     *     Optional<Misplace> result = game.doPlace(Mark.X, 4); // Tries to place an X in the center <br>
+     *     if (result.isPresent()) { <br>
+     *         // Handle invalid move <br>
+     *     } <br>
+     * </pre>
+     */
+    Optional<Misplace> doPlace(Mark mark, int pos){
+        int code = tryPlace(mark, pos);
+        if (code == PLACED) return Optional.empty();
+        return Optional.of(Misplace.fromCode(code));
     }
 
     /**
@@ -239,6 +281,8 @@ public class Game {
      * Checks if the specified mark has won the game by forming a winning combination.
      *
      * A winning combination is defined as having three of the same marks in a row, column, or diagonal.
+     * The tiles of the mark are extracted from the tileMask and looked up in the precomputed `WinTable`,
+     * so no allocation happens here.
      *
      * @param mark - The `Mark` to check for a win condition (X or O).
      * @return `true` if the specified mark has formed a winning combination, `false` otherwise.
@@ -250,11 +294,7 @@ public class Game {
      */
     public boolean hasWon(Mark mark){
         if (mark == Mark.NONE) return false;
-
-        for (int smask: winningSmasks){
-            if (isState(smask, mark)) return true;
-        }
-        return false;
+        return WinTable.isWin(WinTable.occupancy(tileMask, mark));
     }
 
 
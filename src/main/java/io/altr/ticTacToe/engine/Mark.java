@@ -9,6 +9,16 @@ public enum Mark {
 
 
 
+    private static final Mark[] byMask = new Mark[4];
+
+    static {
+        for (Mark mark : values()) {
+            byMask[mark.mask] = mark;
+        }
+    }
+
+
+
     final int mask;
     final char symbol;
     Mark(int mask, char symbol){
@@ -19,6 +29,7 @@ public enum Mark {
 
     /**
      * Retrieves the `Mark` enum corresponding to the exact given mask value.
+     * The lookup goes through a table cached on class load, so it does not allocate.
      *
      * @param mask The exact mask value of the desired `Mark` enum.
      *              This must be an exact match with one of the defined masks
@@ -34,9 +45,7 @@ public enum Mark {
      * </pre>
      */
     static Mark fromMask(int mask){
-        for (Mark mark : values()) {
-            if (mark.mask == mask) return mark;
-        }
+        if (mask >= 0 && mask < byMask.length && byMask[mask] != null) return byMask[mask];
         throw new NoSuchElementException("No mark with the mask: \"" + mask + "\" exists.");
     }
 
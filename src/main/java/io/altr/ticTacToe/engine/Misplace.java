@@ -5,4 +5,28 @@ public enum Misplace {
     NONE_PLACE,
     OUT_OF_TURN,
     TILE_TAKEN;
+
+
+
+    private static final Misplace[] byCode = values();
+
+
+    /**
+     * Retrieves the `Misplace` enum for a status code returned by `Game.tryPlace`.
+     * The lookup goes through a table cached on class load, so it does not allocate.
+     *
+     * @param code A status code other than `Game.PLACED`, as returned by `Game.tryPlace`.
+     * @return The `Misplace` enum instance that corresponds to the code.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     int code = game.tryPlace(Mark.X, Pos.b2); <br>
+     *     if (code != Game.PLACED) { <br>
+     *         Misplace misplace = Misplace.fromCode(code); <br>
+     *     } <br>
+     * </pre>
+     */
+    public static Misplace fromCode(int code){
+        return byCode[code];
+    }
 }
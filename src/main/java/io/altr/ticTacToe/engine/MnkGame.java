@@ -0,0 +1,179 @@
+package io.altr.ticTacToe.engine;
+
+public class MnkGame {
+    // Row and column steps of the 4 line directions: horizontal, vertical, diagonal, anti-diagonal.
+    private static final int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final int rows;
+    private final int cols;
+    private final int k;
+
+    private final long[] xTiles;
+    private final long[] oTiles;
+    private int placed = 0;
+    private Mark whoWon = Mark.NONE;
+    private Mark turnOf = Mark.X;
+
+
+
+
+
+    /**
+     * Creates an empty m,n,k game: a board of `rows` x `cols` tiles, won by the first mark that
+     * gets `k` in a row horizontally, vertically or diagonally.
+     *
+     * @param rows The number of rows on the board.
+     * @param cols The number of columns on the board.
+     * @param k The number of marks in a row needed to win. Must fit on the board and be at most 32.
+     * @throws IllegalArgumentException if the dimensions or `k` are out of range.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     MnkGame gomoku = new MnkGame(15, 15, 5); <br>
+     *     MnkGame ticTacToe = new MnkGame(3, 3, 3); <br>
+     * </pre>
+     */
+    public MnkGame(int rows, int cols, int k){
+        if (rows < 1 || cols < 1)
+            throw new IllegalArgumentException("Board of: \"" + rows + "x" + cols + "\" has no tiles.");
+        if (k < 1 || k > 32 || k > Math.max(rows, cols))
+            throw new IllegalArgumentException("Can't fit: \"" + k + "\" in a row on a " + rows + "x" + cols + " board.");
+
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        int words = (rows * cols + 63) >>> 6;
+        this.xTiles = new long[words];
+        this.oTiles = new long[words];
+    }
+
+
+
+
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public Mark getWhoWon() {
+        return whoWon;
+    }
+
+    public Mark getTurnOf() {
+        return turnOf;
+    }
+
+    public boolean isFull() {
+        return placed == rows * cols;
+    }
+
+    public Mark getMark(int row, int col) {
+        int cell = row * cols + col;
+        if (isSet(xTiles, cell)) return Mark.X;
+        if (isSet(oTiles, cell)) return Mark.O;
+        return Mark.NONE;
+    }
+
+
+
+
+
+    /**
+     * Places the specified mark on the board at the given row and column if all conditions are met.
+     *
+     * The rules match `Game.tryPlace`. After a valid move, only the lines running through the
+     * placed tile are checked for a win, so the cost doesn't grow with the size of the board.
+     *
+     * @param mark - The `Mark` to be placed (X or O).
+     * @param row - The row of the tile, counted from 0.
+     * @param col - The column of the tile, counted from 0.
+     * @return `Game.PLACED` if the move was valid, otherwise the code of the `Misplace` describing
+     *         the reason, which can be turned back into the enum with `Misplace.fromCode`.
+     * @throws IndexOutOfBoundsException if the row or column is outside the board.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     int code = gomoku.tryPlace(Mark.X, 7, 7); // Tries to place an X in the center <br>
+     *     if (code != Game.PLACED) { <br>
+     *         // Handle invalid move <br>
+     *     } <br>
+     * </pre>
+     */
+    public int tryPlace(Mark mark, int row, int col){
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Tile: \"" + row + ", " + col + "\" is outside the board.");
+        if (whoWon != Mark.NONE) return Misplace.GAME_ENDED.ordinal();
+        if (mark == Mark.NONE) return Misplace.NONE_PLACE.ordinal();
+        if (mark != turnOf) return Misplace.OUT_OF_TURN.ordinal();
+
+        int cell = row * cols + col;
+        if (isSet(xTiles, cell) || isSet(oTiles, cell)) return Misplace.TILE_TAKEN.ordinal();
+
+        long[] tiles = mark == Mark.X ? xTiles : oTiles;
+        tiles[cell >>> 6] |= 1L << cell;
+        placed++;
+
+        turnOf = mark == Mark.X ? Mark.O : Mark.X;
+        if (isWinningMove(tiles, row, col)) whoWon = mark;
+        return Game.PLACED;
+    }
+
+
+
+    /**
+     * Checks the 4 lines through the given tile for `k` marks in a row.
+     *
+     * For each direction, the up to `2k - 1` tiles centered on the move are packed into one long,
+     * and `k - 1` shift-and-mask steps leave a bit set only where `k` consecutive tiles are held.
+     */
+    private boolean isWinningMove(long[] tiles, int row, int col){
+        for (int[] direction : directions) {
+            long window = 0L;
+            for (int i = -(k - 1); i < k; i++) {
+                int r = row + i * direction[0];
+                int c = col + i * direction[1];
+                window <<= 1;
+                if (r < 0 || r >= rows || c < 0 || c >= cols) continue;
+                if (isSet(tiles, r * cols + c)) window |= 1L;
+            }
+
+            for (int i = 1; i < k && window != 0L; i++) {
+                window &= window >>> 1;
+            }
+            if (window != 0L) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSet(long[] tiles, int cell){
+        return (tiles[cell >>> 6] >>> cell & 1L) != 0L;
+    }
+
+
+
+
+
+    /**
+     * Provides a string representation of the current game board, one row per line.
+     *
+     * @return A string representing the current state of the game board.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            if (row != 0) sb.append('\n');
+            for (int col = 0; col < cols; col++) {
+                sb.append(getMark(row, col).symbol).append(" ");
+            }
+        } return sb.toString();
+    }
+}
@@ -5,8 +5,32 @@ public enum Pos {
     a2(5), b2(4), c2(3),
     a1(2), b1(1), c1(0);
 
+    private static final Pos[] byVal = new Pos[9];
+
+    static {
+        for (Pos pos : values()) {
+            byVal[pos.val] = pos;
+        }
+    }
+
     final int val;
     Pos(int val){
         this.val = val;
     }
+
+
+    /**
+     * Retrieves the `Pos` enum for the given board position (0-8).
+     *
+     * @param val The position on the board (0-8), where 8 is `a3` and 0 is `c1`.
+     * @return The `Pos` enum instance that corresponds to the provided position.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     Pos pos = Pos.fromVal(4); // returns Pos.b2 <br>
+     * </pre>
+     */
+    public static Pos fromVal(int val){
+        return byVal[val];
+    }
 }
@@ -0,0 +1,169 @@
+package io.altr.ticTacToe.engine;
+
+import java.util.Optional;
+
+public final class Solver {
+    public static final int WIN = 1;
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+
+    public static final int NO_MOVE = -1;
+
+    private static final int FULL_SMASK = 0b111_111_111;
+
+    // Center first, then corners, then edges, so ties resolve to the natural move.
+    private static final int[] moveOrder = {4, 8, 6, 2, 0, 7, 5, 3, 1};
+
+    // Table entry layout: [value + 1 : 2 bits][flag : 2 bits][best pos + 1 : 4 bits], 0 means not searched.
+    private static final int EXACT = 1;
+    private static final int LOWER = 2;
+    private static final int UPPER = 3;
+
+    private Solver(){}
+
+    // Built on first use. Class initialization publishes the array safely, so later reads need no locking.
+    private static final class Table {
+        static final byte[] entries = build();
+    }
+
+
+
+
+
+    /**
+     * Retrieves the game-theoretic value of the game for the side whose turn it is, assuming perfect play.
+     *
+     * @param game The `Game` to evaluate.
+     * @return `WIN`, `DRAW` or `LOSS`, from the point of view of `game.getTurnOf()`.
+     * @throws IllegalArgumentException if the game's tileMask can't be reached by legal play.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     int value = Solver.value(new Game()); // returns Solver.DRAW <br>
+     * </pre>
+     */
+    public static int value(Game game){
+        return value(game.getTileMask());
+    }
+
+    static int value(int tileMask){
+        return (entryOf(tileMask) >> 6) - 1;
+    }
+
+
+
+    /**
+     * Retrieves a best move for the side whose turn it is, assuming perfect play from both sides.
+     *
+     * The answer comes from a table that holds every reachable position, so the query is a single
+     * array read once the table has been built.
+     *
+     * @param game The `Game` to find a move for.
+     * @return An `Optional<Pos>` holding a best move, or empty if the game has already ended.
+     * @throws IllegalArgumentException if the game's tileMask can't be reached by legal play.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     Optional<Pos> hint = Solver.bestMove(game); <br>
+     *     hint.ifPresent(pos -> game.doPlace(game.getTurnOf(), pos)); <br>
+     * </pre>
+     */
+    public static Optional<Pos> bestMove(Game game){
+        int pos = bestMove(game.getTileMask());
+        if (pos == NO_MOVE) return Optional.empty();
+        return Optional.of(Pos.fromVal(pos));
+    }
+
+    static int bestMove(int tileMask){
+        return (entryOf(tileMask) & 0b1111) - 1;
+    }
+
+
+
+    private static int entryOf(int tileMask){
+        if (tileMask < 0 || tileMask >= Table.entries.length || Table.entries[tileMask] == 0) {
+            throw new IllegalArgumentException("TileMask: \"" + tileMask + "\" is not a reachable position.");
+        }
+        return Table.entries[tileMask] & 0xFF;
+    }
+
+
+
+
+
+    private static byte[] build(){
+        byte[] entries = new byte[1 << 18];
+        boolean[] visited = new boolean[1 << 18];
+        solveReachable(0, Mark.X, entries, visited);
+        return entries;
+    }
+
+    private static void solveReachable(int tileMask, Mark turnOf, byte[] entries, boolean[] visited){
+        if (visited[tileMask]) return;
+        visited[tileMask] = true;
+
+        // A window wider than the value range makes the root result exact.
+        search(tileMask, turnOf, LOSS - 1, WIN + 1, entries);
+        if (bestMoveOf(entries[tileMask]) == NO_MOVE) return;
+
+        Mark next = turnOf == Mark.X ? Mark.O : Mark.X;
+        for (int pos = 0; pos < 9; pos++) {
+            if (((tileMask >> pos*2) & 0b11) != 0b00) continue;
+            solveReachable(tileMask | turnOf.mask << pos*2, next, entries, visited);
+        }
+    }
+
+
+
+    /**
+     * Negamax search with alpha-beta pruning over the tileMask, memoized in the given table.
+     * Entries cut off by the window are stored as bounds and re-searched when they are not enough.
+     */
+    private static int search(int tileMask, Mark turnOf, int alpha, int beta, byte[] entries){
+        int entry = entries[tileMask] & 0xFF;
+        if (entry != 0) {
+            int value = (entry >> 6) - 1;
+            int flag = (entry >> 4) & 0b11;
+            if (flag == EXACT) return value;
+            if (flag == LOWER && value >= beta) return value;
+            if (flag == UPPER && value <= alpha) return value;
+        }
+
+        Mark opponent = turnOf == Mark.X ? Mark.O : Mark.X;
+        int opponentSmask = WinTable.occupancy(tileMask, opponent);
+        if (WinTable.isWin(opponentSmask)) {
+            entries[tileMask] = pack(LOSS, EXACT, NO_MOVE);
+            return LOSS;
+        }
+        if ((opponentSmask | WinTable.occupancy(tileMask, turnOf)) == FULL_SMASK) {
+            entries[tileMask] = pack(DRAW, EXACT, NO_MOVE);
+            return DRAW;
+        }
+
+        int alphaOrig = alpha;
+        int best = LOSS - 1;
+        int bestPos = NO_MOVE;
+        for (int pos : moveOrder) {
+            if (((tileMask >> pos*2) & 0b11) != 0b00) continue;
+            int value = -search(tileMask | turnOf.mask << pos*2, opponent, -beta, -alpha, entries);
+            if (value > best) {
+                best = value;
+                bestPos = pos;
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) break;
+        }
+
+        int flag = best <= alphaOrig ? UPPER : best >= beta ? LOWER : EXACT;
+        entries[tileMask] = pack(best, flag, bestPos);
+        return best;
+    }
+
+    private static byte pack(int value, int flag, int bestPos){
+        return (byte) ((value + 1) << 6 | flag << 4 | (bestPos + 1));
+    }
+
+    private static int bestMoveOf(byte entry){
+        return (entry & 0b1111) - 1;
+    }
+}
@@ -0,0 +1,157 @@
+package io.altr.ticTacToe.engine;
+
+public final class Symmetry {
+    public static final int IDENTITY = 0;
+    public static final int TRANSFORMS = 8;
+
+    private static final int TILE_MASK_BITS = 18;
+
+    // Position (0-8) each tile moves to, per transform. Positions are laid out as row*3 + col.
+    private static final int[][] perms = new int[TRANSFORMS][9];
+    private static final int[] inverses = new int[TRANSFORMS];
+
+    // Transformed bits of one 6-bit row of the tileMask, indexed by [(transform*3 + row) << 6 | rowBits].
+    private static final int[] rowTable = new int[TRANSFORMS * 3 << 6];
+
+    static {
+        for (int pos = 0; pos < 9; pos++) {
+            int r = pos / 3;
+            int c = pos % 3;
+            perms[0][pos] = r*3 + c;              // identity
+            perms[1][pos] = c*3 + (2 - r);        // rotate 90
+            perms[2][pos] = (2 - r)*3 + (2 - c);  // rotate 180
+            perms[3][pos] = (2 - c)*3 + r;        // rotate 270
+            perms[4][pos] = r*3 + (2 - c);        // mirror columns
+            perms[5][pos] = (2 - r)*3 + c;        // mirror rows
+            perms[6][pos] = c*3 + r;              // main diagonal
+            perms[7][pos] = (2 - c)*3 + (2 - r);  // anti diagonal
+        }
+
+        for (int t = 0; t < TRANSFORMS; t++) {
+            for (int u = 0; u < TRANSFORMS; u++) {
+                if (isInverse(t, u)) {
+                    inverses[t] = u;
+                    break;
+                }
+            }
+
+            for (int row = 0; row < 3; row++) {
+                for (int bits = 0; bits < 1 << 6; bits++) {
+                    int moved = 0;
+                    for (int col = 0; col < 3; col++) {
+                        int tile = (bits >> col*2) & 0b11;
+                        moved |= tile << perms[t][row*3 + col]*2;
+                    }
+                    rowTable[(t*3 + row) << 6 | bits] = moved;
+                }
+            }
+        }
+    }
+
+    private Symmetry(){}
+
+    private static boolean isInverse(int t, int u){
+        for (int pos = 0; pos < 9; pos++) {
+            if (perms[u][perms[t][pos]] != pos) return false;
+        }
+        return true;
+    }
+
+
+
+
+
+    /**
+     * Applies one of the 8 symmetries of the square to a tileMask.
+     *
+     * The tileMask is split into its three 6-bit rows and each row is looked up in a precomputed
+     * permutation table, so no `Mark[]` board is built.
+     *
+     * @param tileMask The 18-bit tileMask of a game board.
+     * @param transform The index of the symmetry (0-7), with `IDENTITY` leaving the board unchanged.
+     * @return The tileMask of the transformed board.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     int rotated = Symmetry.transform(game.getTileMask(), 1); // rotates the board by 90 degrees <br>
+     * </pre>
+     */
+    public static int transform(int tileMask, int transform){
+        int base = transform*3 << 6;
+        return rowTable[base | (tileMask & 0x3F)]
+                | rowTable[base + (1 << 6) | ((tileMask >> 6) & 0x3F)]
+                | rowTable[base + (2 << 6) | ((tileMask >> 12) & 0x3F)];
+    }
+
+
+
+    /**
+     * Finds the minimal representative of a tileMask under the 8 symmetries of the square.
+     *
+     * Positions that only differ by a rotation or a mirror share one canonical tileMask, so
+     * structures keyed by it hold about 8 times fewer entries. The result packs both the canonical
+     * tileMask and the transform that produced it, so no object is allocated. Use `canonicalOf`
+     * and `transformOf` to unpack it.
+     *
+     * @param tileMask The 18-bit tileMask of a game board.
+     * @return The canonical tileMask in the low 18 bits, and the transform used above them.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     int packed = Symmetry.canonicalize(game.getTileMask()); <br>
+     *     int key = Symmetry.canonicalOf(packed); <br>
+     *     int pos = Symmetry.mapBack(cachedPos, Symmetry.transformOf(packed)); <br>
+     * </pre>
+     */
+    public static int canonicalize(int tileMask){
+        int best = tileMask;
+        int bestTransform = IDENTITY;
+        for (int t = 1; t < TRANSFORMS; t++) {
+            int candidate = transform(tileMask, t);
+            if (candidate < best) {
+                best = candidate;
+                bestTransform = t;
+            }
+        }
+        return bestTransform << TILE_MASK_BITS | best;
+    }
+
+    public static int canonicalOf(int packed){
+        return packed & ((1 << TILE_MASK_BITS) - 1);
+    }
+
+    public static int transformOf(int packed){
+        return packed >>> TILE_MASK_BITS;
+    }
+
+
+
+    /**
+     * Maps a board position (0-8) through the given transform.
+     *
+     * @param pos The position on the original board.
+     * @param transform The index of the symmetry (0-7).
+     * @return The position the tile ends up on in the transformed board.
+     */
+    public static int map(int pos, int transform){
+        return perms[transform][pos];
+    }
+
+    /**
+     * Maps a board position (0-8) of a transformed board back to the original board.
+     *
+     * This is the inverse of `map`, used to turn a move found on a canonical board into a move
+     * on the board that was canonicalized.
+     *
+     * @param pos The position on the transformed board.
+     * @param transform The index of the symmetry (0-7) that was applied.
+     * @return The position on the original board.
+     */
+    public static int mapBack(int pos, int transform){
+        return perms[inverses[transform]][pos];
+    }
+
+    public static Pos mapBack(Pos pos, int transform){
+        return Pos.fromVal(mapBack(pos.val, transform));
+    }
+}
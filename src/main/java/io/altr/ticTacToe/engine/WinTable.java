@@ -0,0 +1,60 @@
+package io.altr.ticTacToe.engine;
+
+final class WinTable {
+    private static final int EVEN_BITS = 0b01_01_01__01_01_01__01_01_01;
+
+    private static final boolean[] wins = new boolean[1 << 9];
+
+    static {
+        for (int smask = 0; smask < wins.length; smask++) {
+            for (int winningSmask : Game.winningSmasks) {
+                if ((smask & winningSmask) != winningSmask) continue;
+                wins[smask] = true;
+                break;
+            }
+        }
+    }
+
+    private WinTable(){}
+
+
+
+
+
+    /**
+     * Extracts the 9-bit occupancy smask of the given mark out of a tileMask.
+     *
+     * Each tile of the tileMask is 2 bits wide, with `Mark.X` stored in the lower
+     * and `Mark.O` in the upper bit. The bits of the requested mark are shifted down
+     * to the even positions and then compressed into 9 adjacent bits.
+     *
+     * @param tileMask The 18-bit tileMask of a game board.
+     * @param mark The `Mark` (X or O) whose tiles should be extracted.
+     * @return A 9-bit smask where each set bit marks a tile held by the given mark.
+     *
+     * <br>Example usage:
+     * <pre>
+     *     int smask = WinTable.occupancy(0b01_01_01__00_00_00__00_10_10, Mark.X); // returns 0b111_000_000 <br>
+     * </pre>
+     */
+    static int occupancy(int tileMask, Mark mark){
+        int bits = (tileMask >> (mark.mask - 1)) & EVEN_BITS;
+        bits = (bits | (bits >> 1)) & 0x33333333;
+        bits = (bits | (bits >> 2)) & 0x0F0F0F0F;
+        bits = (bits | (bits >> 4)) & 0x00FF00FF;
+        bits = (bits | (bits >> 8)) & 0x0000FFFF;
+        return bits;
+    }
+
+
+
+    /**
+     * Checks if the given 9-bit occupancy smask contains any of the winning lines.
+     *
+     * @param smask A 9-bit mask of the tiles held by a single mark.
+     * @return `true` if the smask covers at least one of the `Game.winningSmasks`, `false` otherwise.
+     */
+    static boolean isWin(int smask){
+        return wins[smask];
+    }
+}
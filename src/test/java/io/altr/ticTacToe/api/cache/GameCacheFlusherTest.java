@@ -0,0 +1,55 @@
+package io.altr.ticTacToe.api.cache;
+
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.repository.GameRepository;
+import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "tictactoe.cache.write-behind=true",
+        "tictactoe.cache.flush-interval-ms=3600000",
+        "tictactoe.cache.flush-batch-size=2"
+})
+class GameCacheFlusherTest {
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameCacheFlusher gameCacheFlusher;
+    @Autowired
+    private GameRepository gameRepository;
+
+    private static PlaceRequest placeRequest(String mark, String pos) {
+        return PlaceRequest.of(Mark.valueOf(mark), Pos.valueOf(pos));
+    }
+
+    @Test
+    void movesReachTheRepositoryOnlyOnFlush() {
+        int[] gameIds = new int[5];
+        for (int i = 0; i < gameIds.length; i++) {
+            gameIds[i] = gameService.createNewGame().getGameId();
+            gameService.placeInGame(gameIds[i], placeRequest("X", "b2"));
+            gameService.placeInGame(gameIds[i], placeRequest("O", "a1"));
+        }
+
+        for (int gameId : gameIds) {
+            assertThat(gameRepository.findById(gameId).get().getTileMask()).isEqualTo(0);
+            assertThat(gameService.getGame(gameId).getTurnOf()).isEqualTo(Mark.X);
+        }
+
+        assertThat(gameCacheFlusher.flush()).isEqualTo(gameIds.length);
+        assertThat(gameCacheFlusher.flush()).isEqualTo(0);
+
+        int expected = 0b01 << 8 | 0b10 << 4; // X on b2, O on a1
+        for (int gameId : gameIds) {
+            assertThat(gameRepository.findById(gameId).get().getTileMask()).isEqualTo(expected);
+            assertThat(gameRepository.findById(gameId).get().getVersion()).isEqualTo(2);
+        }
+    }
+}
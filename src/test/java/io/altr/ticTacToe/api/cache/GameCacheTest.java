@@ -0,0 +1,195 @@
+package io.altr.ticTacToe.api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameCacheTest {
+
+    @Test
+    void getCountsHitsAndMisses() {
+        GameCache gameCache = new GameCache(1000, 60_000, false);
+
+        assertThat(gameCache.get(1)).isEqualTo(GameCache.MISSING);
+        gameCache.putIfNewer(1, 0b01_00, 3);
+
+        long cached = gameCache.get(1);
+        assertThat(GameCache.tileMaskOf(cached)).isEqualTo(0b01_00);
+        assertThat(GameCache.versionOf(cached)).isEqualTo(3);
+        assertThat(gameCache.getHitCount()).isEqualTo(1);
+        assertThat(gameCache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void putIfNewerKeepsHighestVersion() {
+        GameCache gameCache = new GameCache(1000, 60_000, false);
+
+        gameCache.putIfNewer(7, 0b10, 5);
+        gameCache.putIfNewer(7, 0b01, 4);
+        assertThat(GameCache.tileMaskOf(gameCache.get(7))).isEqualTo(0b10);
+
+        gameCache.putIfNewer(7, 0b01_10, 6);
+        assertThat(GameCache.versionOf(gameCache.get(7))).isEqualTo(6);
+    }
+
+    @Test
+    void compareAndSetChecksVersion() {
+        GameCache gameCache = new GameCache(1000, 60_000, true);
+        gameCache.putIfNewer(2, 0, 0);
+
+        assertThat(gameCache.compareAndSet(2, 1, 0b01, true)).isFalse();
+        assertThat(gameCache.compareAndSet(2, 0, 0b01, true)).isTrue();
+        assertThat(gameCache.compareAndSet(2, 0, 0b0110, true)).isFalse();
+        assertThat(gameCache.compareAndSet(3, 0, 0b01, true)).isFalse();
+        assertThat(GameCache.versionOf(gameCache.get(2))).isEqualTo(1);
+        assertThat(gameCache.dirtyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dirtyEntriesAreCollectedAndMarkedClean() {
+        GameCache gameCache = new GameCache(1000, 60_000, true);
+        for (int gameId = 1; gameId <= 5; gameId++) {
+            gameCache.putIfNewer(gameId, 0, 0);
+            gameCache.compareAndSet(gameId, 0, gameId, true);
+        }
+
+        int[] gameIds = new int[3];
+        int[] tileMasks = new int[3];
+        int[] versions = new int[3];
+        assertThat(gameCache.collectDirty(gameIds, tileMasks, versions)).isEqualTo(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(tileMasks[i]).isEqualTo(gameIds[i]);
+            gameCache.markClean(gameIds[i], versions[i]);
+        }
+        assertThat(gameCache.dirtyCount()).isEqualTo(2);
+
+        // A move after collecting keeps the entry dirty.
+        int count = gameCache.collectDirty(gameIds, tileMasks, versions);
+        assertThat(count).isEqualTo(2);
+        gameCache.compareAndSet(gameIds[0], versions[0], 0b1111, true);
+        gameCache.markClean(gameIds[0], versions[0]);
+        gameCache.markClean(gameIds[1], versions[1]);
+        assertThat(gameCache.dirtyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeStaysBoundedAndDirtyEntriesSurviveEviction() {
+        GameCache gameCache = new GameCache(160, 60_000, true);
+        for (int gameId = 0; gameId < 16; gameId++) {
+            gameCache.putIfNewer(gameId, 0, 0);
+            gameCache.compareAndSet(gameId, 0, 0b01, true);
+        }
+        for (int gameId = 16; gameId < 10_000; gameId++) {
+            gameCache.putIfNewer(gameId, 0, 0);
+        }
+
+        assertThat(gameCache.size()).isLessThanOrEqualTo(160);
+        assertThat(gameCache.getEvictionCount()).isGreaterThan(0);
+        for (int gameId = 0; gameId < 16; gameId++) {
+            assertThat(GameCache.tileMaskOf(gameCache.get(gameId))).isEqualTo(0b01);
+        }
+    }
+
+    @Test
+    void segmentsFullOfDirtyEntriesTakeNoNewOnes() {
+        // One entry per segment.
+        GameCache gameCache = new GameCache(16, 60_000, true);
+        for (int gameId = 0; gameId < 1000; gameId++) {
+            gameCache.putIfNewer(gameId, 0, 0);
+            gameCache.compareAndSet(gameId, 0, 0b01, true);
+        }
+        assertThat(gameCache.size()).isEqualTo(16);
+        assertThat(gameCache.dirtyCount()).isEqualTo(16);
+
+        assertThat(gameCache.compareAndSetDirty(5000, 0, 0b01, () -> GameCache.entryOf(0, 0))).isEqualTo(GameCache.FULL);
+        int[] gameIds = new int[16], tileMasks = new int[16], versions = new int[16];
+        gameCache.collectDirty(gameIds, tileMasks, versions);
+        for (int i = 0; i < 16; i++) {
+            gameCache.markClean(gameIds[i], versions[i]);
+        }
+        assertThat(gameCache.compareAndSetDirty(5000, 0, 0b01, () -> GameCache.entryOf(0, 0))).isEqualTo(GameCache.SET);
+        assertThat(gameCache.size()).isEqualTo(16);
+    }
+
+    @Test
+    void evictionLooksPastASampleOfDirtyEntries() {
+        GameCache gameCache = new GameCache(16 * 32, 60_000, true);
+        for (int gameId = 0; gameId < 10_000 && gameCache.size() < 16 * 32; gameId++) {
+            gameCache.putIfNewer(gameId, 0, 0);
+            gameCache.compareAndSet(gameId, 0, 0b01, true);
+        }
+        int[] gameIds = new int[1], tileMasks = new int[1], versions = new int[1];
+        gameCache.collectDirty(gameIds, tileMasks, versions);
+        gameCache.markClean(gameIds[0], versions[0]);
+
+        // Only one entry is clean, in whichever segment, and every insert there must find it.
+        for (int gameId = 10_000; gameId < 20_000; gameId++) {
+            gameCache.putIfNewer(gameId, 0, 0);
+        }
+        assertThat(gameCache.size()).isEqualTo(16 * 32);
+        assertThat(gameCache.dirtyCount()).isEqualTo(16 * 32 - 1);
+        assertThat(gameCache.get(gameIds[0])).isEqualTo(GameCache.MISSING);
+    }
+
+    @Test
+    void compareAndSetDirtyLoadsAMissingGame() {
+        GameCache gameCache = new GameCache(1000, 60_000, true);
+
+        assertThat(gameCache.compareAndSetDirty(4, 2, 0b01, () -> GameCache.MISSING)).isEqualTo(GameCache.CHANGED);
+        assertThat(gameCache.compareAndSetDirty(4, 2, 0b01, () -> GameCache.entryOf(3, 0b10))).isEqualTo(GameCache.CHANGED);
+        assertThat(gameCache.get(4)).isEqualTo(GameCache.MISSING);
+        assertThat(gameCache.compareAndSetDirty(4, 2, 0b01, () -> GameCache.entryOf(2, 0))).isEqualTo(GameCache.SET);
+        assertThat(gameCache.get(4)).isEqualTo(GameCache.entryOf(3, 0b01));
+        assertThat(gameCache.dirtyCount()).isEqualTo(1);
+        // Cached now, so the store isn't read again.
+        assertThat(gameCache.compareAndSetDirty(4, 3, 0b0101, () -> GameCache.MISSING)).isEqualTo(GameCache.SET);
+        assertThat(gameCache.compareAndSetDirty(4, 3, 0b0101, () -> GameCache.entryOf(3, 0))).isEqualTo(GameCache.CHANGED);
+    }
+
+    @Test
+    void evictIdleDropsOnlyCleanEntries() throws Exception {
+        GameCache gameCache = new GameCache(1000, 0, true);
+        gameCache.putIfNewer(1, 0, 0);
+        gameCache.putIfNewer(2, 0, 0);
+        gameCache.compareAndSet(2, 0, 0b01, true);
+        Thread.sleep(2);
+
+        assertThat(gameCache.evictIdle()).isEqualTo(1);
+        assertThat(gameCache.get(1)).isEqualTo(GameCache.MISSING);
+        assertThat(gameCache.get(2)).isNotEqualTo(GameCache.MISSING);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        GameCache gameCache = new GameCache(1_000_000, 60_000, false);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            int gameId = random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                gameCache.invalidate(gameId);
+                expected.remove(gameId);
+            } else {
+                int version = expected.getOrDefault(gameId, -1) + 1;
+                gameCache.putIfNewer(gameId, gameId ^ version, version);
+                expected.put(gameId, version);
+            }
+        }
+
+        assertThat(gameCache.size()).isEqualTo(expected.size());
+        for (int gameId = 0; gameId < 5_000; gameId++) {
+            long cached = gameCache.get(gameId);
+            if (!expected.containsKey(gameId)) {
+                assertThat(cached).isEqualTo(GameCache.MISSING);
+                continue;
+            }
+            assertThat(GameCache.versionOf(cached)).isEqualTo(expected.get(gameId));
+            assertThat(GameCache.tileMaskOf(cached)).isEqualTo(gameId ^ expected.get(gameId));
+        }
+    }
+}
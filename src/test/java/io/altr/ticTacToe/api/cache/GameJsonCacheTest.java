@@ -0,0 +1,47 @@
+package io.altr.ticTacToe.api.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GameJsonCache gameJsonCache = new GameJsonCache(objectMapper);
+
+    @Test
+    void encodesEveryReachableGame() {
+        assertThat(gameJsonCache.size()).isEqualTo(5478);
+    }
+
+    @Test
+    void bytesMatchJackson() throws Exception {
+        Game game = new Game();
+        for (Pos pos : new Pos[]{Pos.b2, Pos.a3, Pos.c3, Pos.a1, Pos.a2, Pos.c2, Pos.b1, Pos.b3, Pos.c1}) {
+            assertThat(gameJsonCache.get(game.getTileMask())).isEqualTo(objectMapper.writeValueAsBytes(game));
+            game.tryPlace(game.getTurnOf(), pos);
+        }
+
+        Game won = new Game();
+        for (Pos pos : new Pos[]{Pos.a1, Pos.a2, Pos.b1, Pos.b2, Pos.c1}) won.tryPlace(won.getTurnOf(), pos);
+        assertThat(won.getWhoWon()).isEqualTo(Mark.X);
+        assertThat(gameJsonCache.get(won.getTileMask())).isEqualTo(objectMapper.writeValueAsBytes(won));
+    }
+
+    @Test
+    void lookupsShareTheEncodedBytes() {
+        assertThat(gameJsonCache.get(0b01 << 8)).isSameAs(gameJsonCache.get(0b01 << 8));
+    }
+
+    @Test
+    void unreachableGamesAreStillEncoded() throws Exception {
+        // Three Xs and no O can't come up in play.
+        int tileMask = 0b01 << 16 | 0b01 << 8 | 0b01;
+
+        assertThat(gameJsonCache.get(tileMask)).isEqualTo(objectMapper.writeValueAsBytes(new Game(tileMask)));
+    }
+}
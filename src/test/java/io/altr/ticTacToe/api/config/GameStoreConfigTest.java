@@ -0,0 +1,52 @@
+package io.altr.ticTacToe.api.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameStoreConfigTest {
+
+    private static MockEnvironment withProfiles(String... profiles) {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(profiles);
+        return environment;
+    }
+
+    @Test
+    void eventsIsRefusedWithWriteBehind() {
+        assertThatThrownBy(() -> new GameStoreConfig(withProfiles("events"), true))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("write-behind");
+    }
+
+    @Test
+    void eventsIsRefusedWithReactive() {
+        assertThatThrownBy(() -> new GameStoreConfig(withProfiles("reactive", "events"), false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("\"reactive\"");
+    }
+
+    @Test
+    void journalIsRefusedWithWriteBehindOrReactive() {
+        assertThatThrownBy(() -> new GameStoreConfig(withProfiles("journal"), true))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new GameStoreConfig(withProfiles("journal", "reactive"), false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void memoryIsRefusedWithWriteBehindOrReactive() {
+        assertThatThrownBy(() -> new GameStoreConfig(withProfiles("memory"), true))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new GameStoreConfig(withProfiles("reactive", "memory"), false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void defaultStoreAllowsBoth() {
+        assertThatNoException().isThrownBy(() -> new GameStoreConfig(withProfiles("reactive"), true));
+        assertThatNoException().isThrownBy(() -> new GameStoreConfig(withProfiles("events"), false));
+    }
+}
@@ -0,0 +1,140 @@
+package io.altr.ticTacToe.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.repository.GameRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class GameControllerBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private GameCache gameCache;
+    @Autowired
+    private GameRepository gameRepository;
+    private Statistics statistics;
+    private int gameId_1;
+    private int gameId_2;
+
+    private int newGame() throws Exception {
+        String body = mockMvc.perform(post("/api/newGame"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("gameId").asInt();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        gameId_1 = newGame();
+        gameId_2 = newGame();
+        statistics.clear();
+    }
+
+
+
+
+
+    @Test
+    void failedMovesDoNotAbortTheBatch() throws Exception {
+        String batch = "["
+                + "{\"gameId\": " + gameId_1 + ", \"mark\": \"X\", \"pos\": \"b2\"},"
+                + "{\"gameId\": " + gameId_2 + ", \"mark\": \"X\", \"pos\": \"c1\"},"
+                + "{\"gameId\": " + gameId_1 + ", \"mark\": \"O\", \"pos\": \"b2\"},"
+                + "{\"gameId\": " + gameId_1 + ", \"mark\": \"O\", \"pos\": \"a1\"},"
+                + "{\"mark\": \"X\", \"pos\": \"a1\"},"
+                + "{\"gameId\": -1, \"mark\": \"X\", \"pos\": \"a1\"},"
+                + "{\"gameId\": " + gameId_2 + ", \"mark\": \"X\", \"pos\": \"a3\"}"
+                + "]";
+
+        mockMvc.perform(put("/api/place")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(7))
+                .andExpect(jsonPath("$[0].placed").value(true))
+                .andExpect(jsonPath("$[0].message").value(nullValue()))
+                .andExpect(jsonPath("$[0].game.board[4]").value("X"))
+                .andExpect(jsonPath("$[1].placed").value(true))
+                .andExpect(jsonPath("$[2].placed").value(false))
+                .andExpect(jsonPath("$[2].message").value("Pos: \"b2\" is already taken."))
+                .andExpect(jsonPath("$[3].placed").value(true))
+                .andExpect(jsonPath("$[3].game.board[6]").value("O"))
+                .andExpect(jsonPath("$[4].placed").value(false))
+                .andExpect(jsonPath("$[4].gameId").value(nullValue()))
+                .andExpect(jsonPath("$[5].placed").value(false))
+                .andExpect(jsonPath("$[5].message").value("No game with gameId: \"-1\" was found."))
+                .andExpect(jsonPath("$[6].placed").value(false))
+                .andExpect(jsonPath("$[6].game.turnOf").value("O"));
+
+        assertThat(gameRepository.findById(gameId_1).get().getTileMask()).isEqualTo(0b01 << 8 | 0b10 << 4);
+        assertThat(gameRepository.findById(gameId_2).get().getTileMask()).isEqualTo(0b01);
+    }
+
+    @Test
+    void batchReadsAllMissingGamesOnce() throws Exception {
+        gameCache.invalidateAll();
+        statistics.clear();
+
+        mockMvc.perform(put("/api/place")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("["
+                                + "{\"gameId\": " + gameId_1 + ", \"mark\": \"X\", \"pos\": \"b2\"},"
+                                + "{\"gameId\": " + gameId_2 + ", \"mark\": \"X\", \"pos\": \"b2\"},"
+                                + "{\"gameId\": " + gameId_1 + ", \"mark\": \"O\", \"pos\": \"a1\"}"
+                                + "]"))
+                .andExpect(status().isOk());
+
+        // The writes go through one JDBC batch outside of Hibernate, so only the load is counted.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(2);
+        assertThat(gameRepository.findById(gameId_1).get().getVersion()).isEqualTo(1);
+        assertThat(gameRepository.findById(gameId_2).get().getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void staleGameRejectsOnlyItsOwnMoves() throws Exception {
+        mockMvc.perform(get("/api/{gameId}", gameId_1))
+                .andExpect(status().isOk());
+        // Another instance moves in the game behind the back of this instance's cache.
+        gameRepository.compareAndSetTileMask(gameId_1, 0, 0b01 << 8);
+
+        mockMvc.perform(put("/api/place")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("["
+                                + "{\"gameId\": " + gameId_1 + ", \"mark\": \"X\", \"pos\": \"a1\"},"
+                                + "{\"gameId\": " + gameId_2 + ", \"mark\": \"X\", \"pos\": \"a1\"}"
+                                + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].placed").value(false))
+                .andExpect(jsonPath("$[0].message").value("Game with gameId: \"" + gameId_1 + "\" was changed in the meantime."))
+                .andExpect(jsonPath("$[1].placed").value(true));
+
+        assertThat(gameRepository.findById(gameId_1).get().getTileMask()).isEqualTo(0b01 << 8);
+        assertThat(gameCache.get(gameId_1)).isEqualTo(GameCache.MISSING);
+        mockMvc.perform(get("/api/{gameId}", gameId_1))
+                .andExpect(jsonPath("$.board[4]").value("X"));
+    }
+}
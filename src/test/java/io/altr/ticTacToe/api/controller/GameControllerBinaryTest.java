@@ -0,0 +1,89 @@
+package io.altr.ticTacToe.api.controller;
+
+import io.altr.ticTacToe.api.service.GameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static io.altr.ticTacToe.api.converter.GameBinaryMessageConverter.APPLICATION_TICTACTOE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GameControllerBinaryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private GameService gameService;
+    private int gameId;
+
+    @BeforeEach
+    void setUp() {
+        gameId = gameService.createNewGame().getGameId();
+    }
+
+
+
+
+
+    @Test
+    void gameIsWrittenAsThreeBytesWhenAccepted() throws Exception {
+        // turnOf X, whoWon NONE, empty board.
+        mockMvc.perform(get("/api/{gameId}", gameId).accept(APPLICATION_TICTACTOE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_TICTACTOE))
+                .andExpect(content().bytes(new byte[]{0x10, 0x00, 0x00}));
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/api/{gameId}", gameId).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.turnOf").value("X"));
+    }
+
+    @Test
+    void binaryMovesArePlaced() throws Exception {
+        // X on b2, position 4, then O on a1, position 2.
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(APPLICATION_TICTACTOE)
+                        .accept(APPLICATION_TICTACTOE)
+                        .content(new byte[]{1, 4}))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(new byte[]{0x20, 0x01, 0x00}));
+
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(APPLICATION_TICTACTOE)
+                        .content(new byte[]{2, 2}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.board[4]").value("X"))
+                .andExpect(jsonPath("$.board[6]").value("O"));
+    }
+
+    @Test
+    void rejectedBinaryMovesAreAnsweredWithJsonErrors() throws Exception {
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(APPLICATION_TICTACTOE)
+                        .accept(APPLICATION_TICTACTOE)
+                        .content(new byte[]{2, 4}))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Can't place the mark of: \"O\" now. It's not your turn."));
+
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(APPLICATION_TICTACTOE)
+                        .content(new byte[]{1, 9}))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(APPLICATION_TICTACTOE)
+                        .content(new byte[]{1}))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,46 @@
+package io.altr.ticTacToe.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class GameControllerMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void prometheusEndpointExportsGameMetrics() throws Exception {
+        String body = mockMvc.perform(post("/api/newGame"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        int gameId = objectMapper.readTree(body).get("gameId").asInt();
+        mockMvc.perform(put("/api/" + gameId + "/place")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mark\": \"O\", \"pos\": \"b2\"}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("tictactoe_service_seconds_bucket{method=\"createNewGame\"")))
+                .andExpect(content().string(containsString("tictactoe_service_seconds_count{method=\"placeInGame\"")))
+                .andExpect(content().string(containsString("tictactoe_store_seconds_count{operation=\"find\"")))
+                .andExpect(content().string(containsString("tictactoe_rejections_total{reason=\"OUT_OF_TURN\"")))
+                .andExpect(content().string(containsString("tictactoe_games_active ")))
+                .andExpect(content().string(containsString("tictactoe_cache_json_size ")));
+    }
+}
@@ -0,0 +1,195 @@
+package io.altr.ticTacToe.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.converter.GameBinaryMessageConverter;
+import io.altr.ticTacToe.api.repository.GameRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.auto=io.altr.ticTacToe.api.controller.JdbcBatchCounter"
+})
+@AutoConfigureMockMvc
+class GameControllerSqlCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private GameCache gameCache;
+    @Autowired
+    private GameRepository gameRepository;
+    private Statistics statistics;
+    private int gameId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String body = mockMvc.perform(post("/api/newGame"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        gameId = objectMapper.readTree(body).get("gameId").asInt();
+        statistics.clear();
+        JdbcBatchCounter.reset();
+    }
+
+
+
+
+
+    @Test
+    void placeReadsOnceAndWritesOnce() throws Exception {
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mark\": \"X\", \"pos\": \"b2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.turnOf").value("O"))
+                .andExpect(jsonPath("$.board[4]").value("X"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(gameRepository.findById(gameId).get().getTileMask()).isEqualTo(0b01 << 8);
+    }
+
+    @Test
+    void restartReadsOnceAndWritesOnce() throws Exception {
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mark\": \"X\", \"pos\": \"b2\"}"))
+                .andExpect(status().isOk());
+        gameCache.invalidate(gameId);
+        statistics.clear();
+
+        mockMvc.perform(put("/api/{gameId}/restart", gameId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.board[4]").value("NONE"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(gameRepository.findById(gameId).get().getTileMask()).isEqualTo(0);
+    }
+
+    @Test
+    void rejectedPlaceOnlyReads() throws Exception {
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mark\": \"O\", \"pos\": \"b2\"}"))
+                .andExpect(status().isConflict());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(0);
+    }
+
+    @Test
+    void getReadsOnce() throws Exception {
+        mockMvc.perform(get("/api/{gameId}", gameId))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedPlaceOnlyWrites() throws Exception {
+        mockMvc.perform(get("/api/{gameId}", gameId))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mark\": \"X\", \"pos\": \"b2\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedGetIsServedFromMemory() throws Exception {
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mark\": \"X\", \"pos\": \"b2\"}"))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/{gameId}", gameId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.board[4]").value("X"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+    }
+
+    @Test
+    void unchangedGameIsNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/api/{gameId}", gameId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + gameId + "-0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        mockMvc.perform(get("/api/{gameId}", gameId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+
+        mockMvc.perform(put("/api/{gameId}/place", gameId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mark\": \"X\", \"pos\": \"b2\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/{gameId}", gameId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + gameId + "-1\""))
+                .andExpect(jsonPath("$.board[4]").value("X"));
+    }
+
+    @Test
+    void binaryGameHasItsOwnETag() throws Exception {
+        mockMvc.perform(get("/api/{gameId}", gameId)
+                        .accept(GameBinaryMessageConverter.APPLICATION_TICTACTOE)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + gameId + "-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + gameId + "-0-b\""));
+        mockMvc.perform(get("/api/{gameId}", gameId)
+                        .accept(GameBinaryMessageConverter.APPLICATION_TICTACTOE)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + gameId + "-0-b\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void newGamesAreInsertedInJdbcBatches() throws Exception {
+        mockMvc.perform(post("/api/newGames").param("count", "250"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(250));
+
+        // 250 inserts in batches of hibernate.jdbc.batch_size = 100, sharing one prepared statement,
+        // and at most one sequence call, which the game created in setUp may already have made.
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(250);
+        assertThat(JdbcBatchCounter.getBatchCount()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+    }
+
+    @Test
+    void newGamesRejectsCountOutOfRange() throws Exception {
+        mockMvc.perform(post("/api/newGames").param("count", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/newGames").param("count", "10001"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+    }
+}
@@ -27,7 +27,7 @@ class GameControllerTest {
     @Autowired
     private MockMvc mockMvc;
     @MockBean
-    private GameService gameServiceMock = mock(GameService.class);
+    private GameService gameServiceMock;
     private Game game_1;
     private GameEntity ge_1;
     private Game game_2;
@@ -0,0 +1,124 @@
+package io.altr.ticTacToe.api.controller;
+
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdateRegistry;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GameControllerWatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameUpdateRegistry gameUpdates;
+    private int gameId;
+
+    private static PlaceRequest placeRequest(String mark, String pos) {
+        return PlaceRequest.of(Mark.valueOf(mark), Pos.valueOf(pos));
+    }
+
+    @BeforeEach
+    void setUp() {
+        gameId = gameService.createNewGame().getGameId();
+    }
+
+
+
+
+
+    @Test
+    void longPollWaitsForTheNextVersion() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/{gameId}", gameId).param("sinceVersion", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(gameUpdates.listenerCount(gameId)).isEqualTo(1);
+
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.gameId").value(gameId))
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.game.board[4]").value("X"));
+        assertThat(gameUpdates.listenerCount(gameId)).isEqualTo(0);
+    }
+
+    @Test
+    void longPollAnswersAtOnceWhenAlreadyNewer() throws Exception {
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/{gameId}", gameId).param("sinceVersion", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void longPollTimesOutWithNotModified() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/{gameId}", gameId).param("sinceVersion", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MockAsyncContext asyncContext = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotModified());
+        assertThat(gameUpdates.listenerCount(gameId)).isEqualTo(0);
+    }
+
+    @Test
+    void longPollOfUnknownGameFails() throws Exception {
+        mockMvc.perform(get("/api/{gameId}", -1).param("sinceVersion", "0"))
+                .andExpect(status().isBadRequest());
+        assertThat(gameUpdates.listenerCount(-1)).isEqualTo(0);
+    }
+
+    @Test
+    void eventStreamSendsCurrentStateAndEveryChange() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/{gameId}/events", gameId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(gameUpdates.listenerCount(gameId)).isEqualTo(1);
+
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+        gameService.restartGame(gameId);
+
+        // Events are sent from the task executor, so wait for the last one.
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!mvcResult.getResponse().getContentAsString().contains("id:2\n") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        String events = mvcResult.getResponse().getContentAsString();
+        assertThat(events).containsSubsequence(
+                "id:0\nevent:game\ndata:{\"gameId\":" + gameId + ",\"version\":0,",
+                "id:1\nevent:game\ndata:{\"gameId\":" + gameId + ",\"version\":1,",
+                "id:2\nevent:game\ndata:{\"gameId\":" + gameId + ",\"version\":2,");
+    }
+}
@@ -0,0 +1,149 @@
+package io.altr.ticTacToe.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdateRegistry;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GameSocketHandlerTest {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameUpdateRegistry gameUpdates;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private final List<WebSocketSession> sessions = new ArrayList<>();
+    private int gameId;
+
+    private BlockingQueue<JsonNode> connect() throws Exception {
+        BlockingQueue<JsonNode> received = new LinkedBlockingQueue<>();
+        WebSocketSession session = new StandardWebSocketClient().execute(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+                received.add(objectMapper.readTree(message.getPayload()));
+            }
+        }, "ws://localhost:" + port + "/ws/games").get(5, TimeUnit.SECONDS);
+        sessions.add(session);
+        return received;
+    }
+
+    private void send(int client, String json) throws Exception {
+        sessions.get(client).sendMessage(new TextMessage(json));
+    }
+
+    private static JsonNode next(BlockingQueue<JsonNode> received) throws InterruptedException {
+        JsonNode message = received.poll(5, TimeUnit.SECONDS);
+        assertThat(message).isNotNull();
+        return message;
+    }
+
+    private static PlaceRequest placeRequest(String mark, String pos) {
+        return PlaceRequest.of(Mark.valueOf(mark), Pos.valueOf(pos));
+    }
+
+    @BeforeEach
+    void setUp() {
+        gameId = gameService.createNewGame().getGameId();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (WebSocketSession session : sessions) session.close();
+    }
+
+
+
+
+
+    @Test
+    void subscribersGetCurrentStateAndEveryChange() throws Exception {
+        BlockingQueue<JsonNode> first = connect();
+        BlockingQueue<JsonNode> second = connect();
+        send(0, "{\"type\": \"subscribe\", \"gameId\": " + gameId + "}");
+        send(1, "{\"type\": \"subscribe\", \"gameId\": " + gameId + "}");
+
+        assertThat(next(first).get("version").asInt()).isEqualTo(0);
+        assertThat(next(second).get("game").get("turnOf").asText()).isEqualTo("X");
+
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+        for (BlockingQueue<JsonNode> received : List.of(first, second)) {
+            JsonNode update = next(received);
+            assertThat(update.get("gameId").asInt()).isEqualTo(gameId);
+            assertThat(update.get("version").asInt()).isEqualTo(1);
+            assertThat(update.get("game").get("board").get(4).asText()).isEqualTo("X");
+        }
+
+        gameService.restartGame(gameId);
+        assertThat(next(first).get("game").get("board").get(4).asText()).isEqualTo("NONE");
+        assertThat(next(second).get("version").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void movesCanBeSubmittedOverTheSocket() throws Exception {
+        BlockingQueue<JsonNode> player = connect();
+        BlockingQueue<JsonNode> watcher = connect();
+        send(1, "{\"type\": \"subscribe\", \"gameId\": " + gameId + "}");
+        next(watcher);
+
+        send(0, "{\"type\": \"place\", \"gameId\": " + gameId + ", \"mark\": \"X\", \"pos\": \"a1\"}");
+        assertThat(next(player).get("version").asInt()).isEqualTo(0);
+        assertThat(next(player).get("game").get("turnOf").asText()).isEqualTo("O");
+        assertThat(next(watcher).get("game").get("board").get(6).asText()).isEqualTo("X");
+
+        send(0, "{\"type\": \"place\", \"gameId\": " + gameId + ", \"mark\": \"O\", \"pos\": \"a1\"}");
+        assertThat(next(player).get("error").asText()).isEqualTo("Pos: \"a1\" is already taken.");
+        assertThat(watcher.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void closedAndUnsubscribedSessionsAreRemoved() throws Exception {
+        BlockingQueue<JsonNode> first = connect();
+        BlockingQueue<JsonNode> second = connect();
+        send(0, "{\"type\": \"subscribe\", \"gameId\": " + gameId + "}");
+        send(1, "{\"type\": \"subscribe\", \"gameId\": " + gameId + "}");
+        next(first);
+        next(second);
+        assertThat(gameUpdates.listenerCount(gameId)).isEqualTo(2);
+
+        send(0, "{\"type\": \"unsubscribe\", \"gameId\": " + gameId + "}");
+        sessions.get(1).close();
+        for (int i = 0; i < 50 && gameUpdates.listenerCount(gameId) > 0; i++) Thread.sleep(20);
+        assertThat(gameUpdates.listenerCount(gameId)).isEqualTo(0);
+    }
+
+    @Test
+    void unknownGameIsAnsweredWithAnError() throws Exception {
+        BlockingQueue<JsonNode> received = connect();
+        send(0, "{\"type\": \"subscribe\", \"gameId\": -1}");
+
+        JsonNode error = next(received);
+        assertThat(error.get("gameId").asInt()).isEqualTo(-1);
+        assertThat(error.get("error").asText()).isEqualTo("No game with gameId: \"-1\" was found.");
+        assertThat(gameUpdates.listenerCount(-1)).isEqualTo(0);
+    }
+}
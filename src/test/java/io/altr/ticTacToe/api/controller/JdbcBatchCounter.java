@@ -0,0 +1,26 @@
+package io.altr.ticTacToe.api.controller;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the JDBC batches Hibernate executes, which `Statistics` doesn't expose.
+ * Registered for every session with `hibernate.session.events.auto`.
+ */
+public class JdbcBatchCounter implements SessionEventListener {
+    private static final LongAdder batches = new LongAdder();
+
+    public static long getBatchCount() {
+        return batches.sum();
+    }
+
+    public static void reset() {
+        batches.reset();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batches.increment();
+    }
+}
@@ -0,0 +1,111 @@
+package io.altr.ticTacToe.api.controller;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.api.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveGameControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private GameCache gameCache;
+    @Autowired
+    private GameRepository gameRepository;
+    private int gameId;
+
+    private WebTestClient.ResponseSpec place(int gameId, String json) {
+        return webTestClient.put().uri("/api/{gameId}/place", gameId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameEntity ge = webTestClient.post().uri("/api/newGame")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(GameEntity.class).returnResult().getResponseBody();
+        gameId = ge.getGameId();
+    }
+
+
+
+
+
+    @Test
+    void placeIsWrittenThroughR2dbc() {
+        gameCache.invalidate(gameId);
+
+        place(gameId, "{\"mark\": \"X\", \"pos\": \"b2\"}")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.turnOf").isEqualTo("O")
+                .jsonPath("$.board[4]").isEqualTo("X");
+
+        GameEntity stored = gameRepository.findById(gameId).get();
+        assertThat(stored.getTileMask()).isEqualTo(0b01 << 8);
+        assertThat(stored.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedMovesUseTheSameErrors() {
+        place(gameId, "{\"mark\": \"O\", \"pos\": \"b2\"}")
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Can't place the mark of: \"O\" now. It's not your turn.");
+        place(gameId, "{\"mark\": \"X\"}")
+                .expectStatus().isBadRequest();
+        place(-1, "{\"mark\": \"X\", \"pos\": \"b2\"}")
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void staleCacheIsRejectedAndDropped() {
+        webTestClient.get().uri("/api/{gameId}", gameId).exchange().expectStatus().isOk();
+        gameRepository.compareAndSetTileMask(gameId, 0, 0b01 << 8);
+
+        place(gameId, "{\"mark\": \"X\", \"pos\": \"a1\"}")
+                .expectStatus().isEqualTo(409);
+        assertThat(gameCache.get(gameId)).isEqualTo(GameCache.MISSING);
+
+        webTestClient.get().uri("/api/{gameId}", gameId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.board[4]").isEqualTo("X");
+    }
+
+    @Test
+    void restartAndDelete() {
+        place(gameId, "{\"mark\": \"X\", \"pos\": \"b2\"}").expectStatus().isOk();
+
+        webTestClient.put().uri("/api/{gameId}/restart", gameId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.board[4]").isEqualTo("NONE");
+
+        webTestClient.delete().uri("/api/{gameId}/delete", gameId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.gameId").isEqualTo(gameId);
+        assertThat(gameRepository.findById(gameId)).isEmpty();
+        webTestClient.get().uri("/api/{gameId}", gameId)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
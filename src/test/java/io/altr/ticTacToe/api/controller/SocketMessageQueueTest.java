@@ -0,0 +1,58 @@
+package io.altr.ticTacToe.api.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SocketMessageQueueTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final WebSocketSession session = mock(WebSocketSession.class);
+
+    @Test
+    void messagesAreSentByOneTaskInOrder() throws Exception {
+        when(session.isOpen()).thenReturn(true);
+        SocketMessageQueue queue = new SocketMessageQueue(session, tasks::add, 4);
+        queue.offer("{\"version\":1}");
+        queue.offer("{\"version\":2}");
+
+        // Nothing is sent on the publishing thread.
+        verify(session, never()).sendMessage(any());
+        assertThat(tasks).hasSize(1);
+
+        tasks.remove(0).run();
+        InOrder inOrder = inOrder(session);
+        inOrder.verify(session).sendMessage(new TextMessage("{\"version\":1}"));
+        inOrder.verify(session).sendMessage(new TextMessage("{\"version\":2}"));
+
+        queue.offer("{\"version\":3}");
+        assertThat(tasks).hasSize(1);
+        tasks.remove(0).run();
+        verify(session).sendMessage(new TextMessage("{\"version\":3}"));
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void sessionFallingBehindIsClosed() throws Exception {
+        when(session.isOpen()).thenReturn(true);
+        SocketMessageQueue queue = new SocketMessageQueue(session, tasks::add, 2);
+        for (int version = 1; version <= 3; version++) {
+            queue.offer("{\"version\":" + version + "}");
+        }
+
+        tasks.remove(0).run();
+        verify(session, never()).sendMessage(any());
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+
+        queue.offer("{\"version\":4}");
+        assertThat(tasks).isEmpty();
+    }
+}
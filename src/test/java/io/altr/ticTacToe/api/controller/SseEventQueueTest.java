@@ -0,0 +1,92 @@
+package io.altr.ticTacToe.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.service.GameUpdate;
+import io.altr.ticTacToe.engine.Game;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseEventQueueTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final RecordingEmitter sseEmitter = new RecordingEmitter();
+
+    private GameUpdate update(int version) {
+        return new GameUpdate(1, version, new Game(), objectMapper);
+    }
+
+    @Test
+    void updatesAreSentByOneTaskInOrder() {
+        SseEventQueue queue = new SseEventQueue(sseEmitter, tasks::add, 4);
+        queue.onUpdate(update(1));
+        queue.onUpdate(update(2));
+
+        // Nothing is sent on the publishing thread.
+        assertThat(sseEmitter.sent).isZero();
+        assertThat(tasks).hasSize(1);
+
+        tasks.remove(0).run();
+        assertThat(sseEmitter.sent).isEqualTo(2);
+        assertThat(sseEmitter.completed).isFalse();
+
+        queue.onUpdate(update(3));
+        assertThat(tasks).hasSize(1);
+        tasks.remove(0).run();
+        assertThat(sseEmitter.sent).isEqualTo(3);
+    }
+
+    @Test
+    void updatesOlderThanOneAlreadyQueuedAreDropped() {
+        SseEventQueue queue = new SseEventQueue(sseEmitter, tasks::add, 4);
+        // A move published while the current state was being read, before it was queued.
+        queue.onUpdate(update(3));
+        queue.onUpdate(update(2));
+        queue.onUpdate(update(3));
+
+        tasks.remove(0).run();
+        assertThat(sseEmitter.ids).containsExactly("3");
+
+        queue.onUpdate(update(4));
+        tasks.remove(0).run();
+        assertThat(sseEmitter.ids).containsExactly("3", "4");
+    }
+
+    @Test
+    void streamFallingBehindIsEnded() {
+        SseEventQueue queue = new SseEventQueue(sseEmitter, tasks::add, 2);
+        for (int version = 1; version <= 3; version++) {
+            queue.onUpdate(update(version));
+        }
+
+        tasks.remove(0).run();
+        assertThat(sseEmitter.sent).isZero();
+        assertThat(sseEmitter.completed).isTrue();
+
+        queue.onUpdate(update(4));
+        assertThat(tasks).isEmpty();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        int sent;
+        final List<String> ids = new ArrayList<>();
+        boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent++;
+            String event = builder.build().iterator().next().getData().toString();
+            ids.add(event.substring("id:".length(), event.indexOf('\n')));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.altr.ticTacToe.api.dto;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlaceRequestDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PlaceRequest read(String json) throws Exception {
+        return objectMapper.readValue(json, PlaceRequest.class);
+    }
+
+
+
+
+
+    @Test
+    void readsEveryMarkAndPosIntoOrdinals() throws Exception {
+        for (Mark mark : Mark.values()) {
+            for (Pos pos : Pos.values()) {
+                PlaceRequest placeRequest = read("{\"mark\": \"" + mark + "\", \"pos\": \"" + pos + "\"}");
+                assertThat(placeRequest).isEqualTo(PlaceRequest.of(mark, pos));
+            }
+        }
+    }
+
+    @Test
+    void readsGameIdAndSkipsOtherFields() throws Exception {
+        PlaceRequest placeRequest = read("{\"type\": \"place\", \"extra\": {\"mark\": \"O\", \"list\": [1, 2]},"
+                + " \"gameId\": 7, \"mark\": \"X\", \"pos\": \"b2\"}");
+
+        assertThat(placeRequest).isEqualTo(new PlaceRequest(7, Mark.X.ordinal(), Pos.b2.ordinal()));
+    }
+
+    @Test
+    void missingFieldsAreMarkedMissing() throws Exception {
+        assertThat(read("{}")).isEqualTo(new PlaceRequest(null, PlaceRequest.MISSING, PlaceRequest.MISSING));
+        assertThat(read("{\"gameId\": \"7\", \"pos\": \"a1\"}").gameId()).isNull();
+        assertThat(read("{\"gameId\": 3000000000}").gameId()).isNull();
+    }
+
+    @Test
+    void wrongValuesAreMarkedInvalid() throws Exception {
+        for (String value : new String[]{"\"x\"", "\"XO\"", "\"NONEX\"", "\"\"", "1", "null", "[\"X\"]", "{\"X\": 1}"}) {
+            PlaceRequest placeRequest = read("{\"mark\": " + value + ", \"pos\": \"a1\"}");
+            assertThat(placeRequest.mark()).as(value).isEqualTo(PlaceRequest.INVALID);
+            assertThat(placeRequest.pos()).as(value).isEqualTo(Pos.a1.ordinal());
+        }
+        for (String value : new String[]{"\"d1\"", "\"a4\"", "\"a0\"", "\"A1\"", "\"a\"", "\"a11\"", "8", "null"}) {
+            assertThat(read("{\"mark\": \"X\", \"pos\": " + value + "}").pos()).as(value).isEqualTo(PlaceRequest.INVALID);
+        }
+    }
+
+    @Test
+    void outOfRangeOrdinalsAreInvalid() {
+        PlaceRequest placeRequest = new PlaceRequest(null, 3, 9);
+
+        assertThat(placeRequest.mark()).isEqualTo(PlaceRequest.INVALID);
+        assertThat(placeRequest.pos()).isEqualTo(PlaceRequest.INVALID);
+    }
+
+    @Test
+    void nonObjectsAreRejected() {
+        assertThatThrownBy(() -> read("[\"X\", \"a1\"]")).isInstanceOf(JsonMappingException.class);
+        assertThatThrownBy(() -> read("\"X\"")).isInstanceOf(JsonMappingException.class);
+    }
+}
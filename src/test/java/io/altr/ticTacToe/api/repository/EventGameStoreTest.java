@@ -0,0 +1,149 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.dto.PlaceResult;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.api.entity.MoveEventEntity;
+import io.altr.ticTacToe.api.service.GameService;
+import io.altr.ticTacToe.api.service.GameUpdate;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "tictactoe.events.snapshot-interval=4")
+@ActiveProfiles("events")
+class EventGameStoreTest {
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameStore gameStore;
+    @Autowired
+    private GameCache gameCache;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private MoveEventRepository moveEventRepository;
+
+    private static PlaceRequest placeRequest(String mark, String pos) {
+        return PlaceRequest.of(Mark.valueOf(mark), Pos.valueOf(pos));
+    }
+
+    private static int move(String mark, String pos) {
+        return GameStore.move(Mark.valueOf(mark).ordinal(), Pos.valueOf(pos).ordinal());
+    }
+
+    @Test
+    void movesAreAppendedAndReplayedFromTheSnapshot() {
+        int gameId = gameService.createNewGame().getGameId();
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+        gameService.placeInGame(gameId, placeRequest("O", "a1"));
+        Game played = gameService.placeInGame(gameId, placeRequest("X", "c3"));
+
+        List<MoveEventEntity> moveEvents = moveEventRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(gameId, 0);
+        assertThat(moveEvents).extracting(MoveEventEntity::getSequence).containsExactly(1, 2, 3);
+        assertThat(moveEvents).extracting(MoveEventEntity::getPos)
+                .containsExactly(Pos.b2.ordinal(), Pos.a1.ordinal(), Pos.c3.ordinal());
+        // Below the snapshot interval, the snapshot is still the empty game.
+        assertThat(gameRepository.findById(gameId).get().getVersion()).isZero();
+
+        gameCache.invalidate(gameId);
+        GameUpdate replayed = gameService.getGameUpdate(gameId);
+        assertThat(replayed.getGame()).isEqualTo(played);
+        assertThat(replayed.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void snapshotMovesForwardEveryInterval() {
+        int gameId = gameService.createNewGame().getGameId();
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+        gameService.placeInGame(gameId, placeRequest("O", "a1"));
+        gameService.placeInGame(gameId, placeRequest("X", "c3"));
+        Game atSnapshot = gameService.placeInGame(gameId, placeRequest("O", "a3"));
+        Game played = gameService.placeInGame(gameId, placeRequest("X", "c1"));
+
+        GameEntity snapshot = gameRepository.findById(gameId).get();
+        assertThat(snapshot.getVersion()).isEqualTo(4);
+        assertThat(snapshot.getTileMask()).isEqualTo(atSnapshot.getTileMask());
+
+        gameCache.invalidate(gameId);
+        assertThat(gameService.getGame(gameId)).isEqualTo(played);
+        assertThat(gameStore.findAll(List.of(gameId)))
+                .containsEntry(gameId, GameCache.entryOf(5, played.getTileMask()));
+    }
+
+    @Test
+    void restartsAreLoggedAndEveryVersionCanBeReplayed() {
+        int gameId = gameService.createNewGame().getGameId();
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+        Game beforeRestart = gameService.placeInGame(gameId, placeRequest("O", "a1"));
+        gameService.restartGame(gameId);
+        Game played = gameService.placeInGame(gameId, placeRequest("X", "c1"));
+
+        EventGameStore eventGameStore = (EventGameStore) gameStore;
+        assertThat(eventGameStore.findAt(gameId, 2)).isEqualTo(GameCache.entryOf(2, beforeRestart.getTileMask()));
+        assertThat(eventGameStore.findAt(gameId, 3)).isEqualTo(GameCache.entryOf(3, 0));
+        assertThat(eventGameStore.findAt(gameId, 4)).isEqualTo(GameCache.entryOf(4, played.getTileMask()));
+        assertThat(eventGameStore.findAt(gameId, 5)).isEqualTo(GameCache.MISSING);
+    }
+
+    @Test
+    void writesOverTheSameVersionConflict() {
+        int gameId = gameService.createNewGame().getGameId();
+
+        assertThat(gameStore.write(gameId, 0, 0b01 << 8, move("X", "b2"))).isEqualTo(1);
+        assertThat(gameStore.write(gameId, 0, 0b01 << 4, move("X", "a1"))).isEqualTo(GameStore.CONFLICT);
+        assertThat(gameStore.find(gameId)).isEqualTo(GameCache.entryOf(1, 0b01 << 8));
+    }
+
+    @Test
+    void batchedWritesAppendEveryMoveAndTellConflictsApart() {
+        int first = gameService.createNewGame().getGameId();
+        int second = gameService.createNewGame().getGameId();
+        gameStore.write(second, 0, 0b01 << 8, move("X", "b2"));
+
+        int[] written = gameStore.writeAll(new int[]{first, second}, new int[]{0, 0},
+                new int[]{0b01 << 8 | 0b10 << 4, 0b01 << 4},
+                new int[][]{{move("X", "b2"), move("O", "a1")}, {move("X", "a1")}}, 2);
+
+        assertThat(written).containsExactly(2, GameStore.CONFLICT);
+        assertThat(gameStore.find(first)).isEqualTo(GameCache.entryOf(2, 0b01 << 8 | 0b10 << 4));
+        assertThat(gameStore.find(second)).isEqualTo(GameCache.entryOf(1, 0b01 << 8));
+    }
+
+    @Test
+    void batchOfMovesIsLoggedMoveByMove() {
+        int gameId = gameService.createNewGame().getGameId();
+        gameCache.invalidate(gameId);
+
+        List<PlaceResult> results = gameService.placeInGames(List.of(
+                new PlaceRequest(gameId, Mark.X.ordinal(), Pos.b2.ordinal()),
+                new PlaceRequest(gameId, Mark.X.ordinal(), Pos.a1.ordinal()),
+                new PlaceRequest(gameId, Mark.O.ordinal(), Pos.a1.ordinal())));
+
+        assertThat(results).extracting(PlaceResult::placed).containsExactly(true, false, true);
+        assertThat(moveEventRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(gameId, 0))
+                .extracting(MoveEventEntity::getSequence).containsExactly(1, 2);
+        assertThat(gameService.getGameUpdate(gameId).getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void deletedGamesLoseTheirLog() {
+        int gameId = gameService.createNewGame().getGameId();
+        gameService.placeInGame(gameId, placeRequest("X", "b2"));
+
+        gameService.deleteGame(gameId);
+
+        assertThat(gameStore.find(gameId)).isEqualTo(GameCache.MISSING);
+        assertThat(moveEventRepository.findByGameIdAndSequenceGreaterThanOrderBySequence(gameId, 0)).isEmpty();
+    }
+}
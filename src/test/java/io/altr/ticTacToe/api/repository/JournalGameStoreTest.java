@@ -0,0 +1,198 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class JournalGameStoreTest {
+
+    // 16 records per segment, so a few games fill several.
+    private static final long SEGMENT_SIZE = 16 * JournalGameStore.RECORD_SIZE;
+
+    @TempDir
+    Path dir;
+
+    private JournalGameStore open() {
+        return new JournalGameStore(dir.resolve("games.journal"), SEGMENT_SIZE, true);
+    }
+
+    private static int move(String mark, String pos) {
+        return GameStore.move(Mark.valueOf(mark).ordinal(), Pos.valueOf(pos).ordinal());
+    }
+
+    private static int tileMaskAfter(int... moves) {
+        Game game = new Game();
+        for (int move : moves) {
+            GameStore.replay(game, move);
+        }
+        return game.getTileMask();
+    }
+
+    @Test
+    void writesAreCheckedAgainstTheVersion() {
+        JournalGameStore store = open();
+        int gameId = store.create().getGameId();
+        int tileMask = tileMaskAfter(move("X", "b2"));
+
+        assertThat(store.write(gameId, 0, tileMask, move("X", "b2"))).isEqualTo(1);
+        assertThat(store.write(gameId, 0, tileMask, move("X", "b2"))).isEqualTo(GameStore.CONFLICT);
+        assertThat(store.write(gameId + 1, 0, tileMask, move("X", "b2"))).isEqualTo(GameStore.CONFLICT);
+        assertThat(store.find(gameId)).isEqualTo(GameCache.entryOf(1, tileMask));
+        store.close();
+    }
+
+    @Test
+    void gamesAreRebuiltFromTheJournalAfterACrash() {
+        JournalGameStore store = open();
+        List<Integer> gameIds = store.createAll(3).stream().map(gameEntity -> gameEntity.getGameId()).toList();
+        int first = gameIds.get(0), second = gameIds.get(1), third = gameIds.get(2);
+
+        store.write(first, 0, tileMaskAfter(move("X", "b2")), move("X", "b2"));
+        store.write(first, 1, tileMaskAfter(move("X", "b2"), move("O", "a1")), move("O", "a1"));
+        store.writeAll(new int[]{second, third}, new int[]{0, 0},
+                new int[]{tileMaskAfter(move("X", "a3"), move("O", "c1")), tileMaskAfter(move("X", "c3"))},
+                new int[][]{{move("X", "a3"), move("O", "c1")}, {move("X", "c3")}}, 2);
+        store.write(third, 1, 0, GameStore.RESTART);
+        store.delete(second);
+        Map<Integer, Long> before = store.findAll(gameIds);
+
+        // Not closed, as if the process died: reopening only sees what reached the file.
+        JournalGameStore reopened = open();
+        assertThat(reopened.findAll(gameIds)).isEqualTo(before);
+        assertThat(reopened.find(first)).isEqualTo(GameCache.entryOf(2, tileMaskAfter(move("X", "b2"), move("O", "a1"))));
+        assertThat(reopened.find(second)).isEqualTo(GameCache.MISSING);
+        assertThat(reopened.find(third)).isEqualTo(GameCache.entryOf(2, 0));
+
+        // New games and moves go after the recovered ones instead of over them.
+        int fourth = reopened.create().getGameId();
+        assertThat(fourth).isGreaterThan(third);
+        assertThat(reopened.write(first, 2, tileMaskAfter(move("X", "b2"), move("O", "a1"), move("X", "a2")), move("X", "a2"))).isEqualTo(3);
+        reopened.close();
+
+        JournalGameStore again = open();
+        assertThat(again.find(first)).isEqualTo(reopened.find(first));
+        assertThat(again.find(fourth)).isEqualTo(GameCache.entryOf(0, 0));
+        again.close();
+    }
+
+    @Test
+    void recoveryStopsAtATornRecord() throws Exception {
+        JournalGameStore store = open();
+        int gameId = store.create().getGameId();
+        store.write(gameId, 0, tileMaskAfter(move("X", "b2")), move("X", "b2"));
+        store.write(gameId, 1, tileMaskAfter(move("X", "b2"), move("O", "a1")), move("O", "a1"));
+        store.close();
+
+        // The last record never made it to disk.
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("games.journal").toFile(), "rw")) {
+            file.seek(2 * JournalGameStore.RECORD_SIZE);
+            file.writeLong(0);
+        }
+
+        JournalGameStore reopened = open();
+        assertThat(reopened.find(gameId)).isEqualTo(GameCache.entryOf(1, tileMaskAfter(move("X", "b2"))));
+        assertThat(reopened.write(gameId, 1, tileMaskAfter(move("X", "b2"), move("O", "c1")), move("O", "c1"))).isEqualTo(2);
+        reopened.close();
+    }
+
+    @Test
+    void recoveryStopsAtAHalfWrittenRecord() throws Exception {
+        JournalGameStore store = open();
+        int gameId = store.create().getGameId();
+        store.write(gameId, 0, tileMaskAfter(move("X", "b2")), move("X", "b2"));
+        store.close();
+
+        // Only the gameId half of the move reached disk, which would read as a restart.
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("games.journal").toFile(), "rw")) {
+            file.seek(JournalGameStore.RECORD_SIZE + Integer.BYTES);
+            file.writeInt(0);
+        }
+
+        JournalGameStore reopened = open();
+        assertThat(reopened.find(gameId)).isEqualTo(GameCache.entryOf(0, 0));
+        reopened.close();
+    }
+
+    @Test
+    void recoveryStopsAtAMoveOfAnUnknownGame() throws Exception {
+        JournalGameStore store = open();
+        int gameId = store.create().getGameId();
+        store.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("games.journal").toFile(), "rw")) {
+            file.seek(JournalGameStore.RECORD_SIZE);
+            file.writeLong((long) (gameId + 1) << 32 | (1L << 31 | move("X", "b2")));
+        }
+
+        JournalGameStore reopened = open();
+        assertThat(reopened.find(gameId)).isEqualTo(GameCache.entryOf(0, 0));
+        assertThat(reopened.find(gameId + 1)).isEqualTo(GameCache.MISSING);
+        reopened.close();
+    }
+
+    @Test
+    void recordsAfterAGapAreNotReplayedLater() throws Exception {
+        JournalGameStore store = open();
+        int gameId = store.create().getGameId();
+        store.write(gameId, 0, tileMaskAfter(move("X", "b2")), move("X", "b2"));
+        store.write(gameId, 1, tileMaskAfter(move("X", "b2"), move("O", "a1")), move("O", "a1"));
+        store.write(gameId, 2, tileMaskAfter(move("X", "b2"), move("O", "a1"), move("X", "c3")), move("X", "c3"));
+        store.close();
+
+        // The page with the second move was lost, but the one with the third made it to disk.
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("games.journal").toFile(), "rw")) {
+            file.seek(2 * JournalGameStore.RECORD_SIZE);
+            file.writeLong(0);
+        }
+
+        JournalGameStore reopened = open();
+        assertThat(reopened.find(gameId)).isEqualTo(GameCache.entryOf(1, tileMaskAfter(move("X", "b2"))));
+        // Written over the gap, and followed by the stale third move unless recovery cleared it.
+        int tileMask = tileMaskAfter(move("X", "b2"), move("O", "c1"));
+        assertThat(reopened.write(gameId, 1, tileMask, move("O", "c1"))).isEqualTo(2);
+        // Crashes again, without closing.
+
+        JournalGameStore again = open();
+        assertThat(again.find(gameId)).isEqualTo(GameCache.entryOf(2, tileMask));
+        again.close();
+    }
+
+    @Test
+    void aFailedForceIsForcedAgainByTheNextWrite() {
+        List<long[]> forced = new ArrayList<>();
+        AtomicBoolean failNext = new AtomicBoolean();
+        JournalGameStore store = new JournalGameStore(dir.resolve("games.journal"), SEGMENT_SIZE, true) {
+            @Override
+            void force(long from, long to) {
+                if (failNext.getAndSet(false)) throw new UncheckedIOException(new IOException("No space left on device"));
+                forced.add(new long[]{from, to});
+                super.force(from, to);
+            }
+        };
+        int gameId = store.create().getGameId();
+
+        failNext.set(true);
+        Throwable failure = catchThrowable(() -> store.write(gameId, 0, tileMaskAfter(move("X", "b2")), move("X", "b2")));
+        assertThat(failure).isInstanceOf(UncheckedIOException.class);
+
+        // The first move was never forced, so it is forced again along with the second.
+        store.write(gameId, 1, tileMaskAfter(move("X", "b2"), move("O", "a1")), move("O", "a1"));
+        assertThat(forced.get(forced.size() - 1)).containsExactly(JournalGameStore.RECORD_SIZE, 3 * JournalGameStore.RECORD_SIZE);
+        store.close();
+    }
+}
@@ -0,0 +1,87 @@
+package io.altr.ticTacToe.api.repository;
+
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.entity.GameEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoryGameStoreTest {
+
+    private final MemoryGameStore store = new MemoryGameStore(3 * MemoryGameStore.PAGE_SIZE);
+
+    @Test
+    void writesAreCheckedAgainstTheVersion() {
+        int gameId = store.create().getGameId();
+
+        assertThat(store.write(gameId, 0, 0b01, 0)).isEqualTo(1);
+        assertThat(store.write(gameId, 0, 0b10, 0)).isEqualTo(GameStore.CONFLICT);
+        assertThat(store.write(gameId + 1, 0, 0b10, 0)).isEqualTo(GameStore.CONFLICT);
+        assertThat(store.write(0, 0, 0b10, 0)).isEqualTo(GameStore.CONFLICT);
+        assertThat(store.find(gameId)).isEqualTo(GameCache.entryOf(1, 0b01));
+        assertThat(store.find(gameId + 1)).isEqualTo(GameCache.MISSING);
+    }
+
+    @Test
+    void deletedGameIdsAreReusedWithALaterVersion() {
+        int gameId = store.create().getGameId();
+        store.write(gameId, 0, 0b01, 0);
+        store.write(gameId, 1, 0b1001, 0);
+
+        assertThat(store.delete(gameId).getTileMask()).isEqualTo(0b1001);
+        assertThat(store.delete(gameId)).isNull();
+        assertThat(store.find(gameId)).isEqualTo(GameCache.MISSING);
+        assertThat(store.write(gameId, 2, 0b01, 0)).isEqualTo(GameStore.CONFLICT);
+        assertThat(store.size()).isZero();
+
+        assertThat(store.create().getGameId()).isEqualTo(gameId);
+        assertThat(store.find(gameId)).isEqualTo(GameCache.entryOf(3, 0));
+        assertThat(store.create().getGameId()).isEqualTo(gameId + 1);
+    }
+
+    @Test
+    void gamesSpanPagesUpToTheLimit() {
+        List<GameEntity> gameEntities = store.createAll(3 * MemoryGameStore.PAGE_SIZE);
+        int last = gameEntities.get(gameEntities.size() - 1).getGameId();
+
+        assertThat(last).isEqualTo(3 * MemoryGameStore.PAGE_SIZE);
+        assertThat(store.write(last, 0, 0b01, 0)).isEqualTo(1);
+        assertThat(store.find(last)).isEqualTo(GameCache.entryOf(1, 0b01));
+        assertThatThrownBy(store::create).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void racingWritesOnOneVersionHaveOneWinner() throws Exception {
+        int gameId = store.create().getGameId();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        AtomicInteger won = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int tileMask = t + 1;
+                futures.add(executor.submit(() -> {
+                    for (int version = 0; version < 1000; version++) {
+                        barrier.await();
+                        if (store.write(gameId, version, tileMask, 0) != GameStore.CONFLICT) won.incrementAndGet();
+                        barrier.await();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(won.get()).isEqualTo(1000);
+        assertThat(GameCache.versionOf(store.find(gameId))).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,10 @@
+package io.altr.ticTacToe.api.service;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the concurrency tests against the move log, where racing moves are turned away by its primary key.
+ */
+@ActiveProfiles("events")
+class EventGameServiceConcurrencyTest extends GameServiceConcurrencyTest {
+}
@@ -0,0 +1,94 @@
+package io.altr.ticTacToe.api.service;
+
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.exception.GameStateException;
+import io.altr.ticTacToe.api.exception.WrongFieldNameException;
+import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GameServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int GAMES = 20;
+
+    @Autowired
+    private GameService gameService;
+
+    private static PlaceRequest placeRequest(Mark mark, Pos pos) {
+        return PlaceRequest.of(mark, pos);
+    }
+
+    private static boolean isOver(Game game) {
+        if (game.getWhoWon() != Mark.NONE) return true;
+        for (Mark mark : game.getBoard()) {
+            if (mark == Mark.NONE) return false;
+        }
+        return true;
+    }
+
+    private static int countMarks(Game game) {
+        int marks = 0;
+        for (Mark mark : game.getBoard()) {
+            if (mark != Mark.NONE) marks++;
+        }
+        return marks;
+    }
+
+
+
+
+
+    @Test
+    void concurrentMovesOnOneGameAreNeverLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < GAMES; round++) {
+                int gameId = gameService.createNewGame().getGameId();
+                AtomicInteger applied = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        Game game = gameService.getGame(gameId);
+                        while (!isOver(game)) {
+                            Pos pos = Pos.values()[ThreadLocalRandom.current().nextInt(9)];
+                            try {
+                                gameService.placeInGame(gameId, placeRequest(game.getTurnOf(), pos));
+                                applied.incrementAndGet();
+                            } catch (OptimisticLockingFailureException e) {
+                                // Lost the race against another move. Read again and retry.
+                            } catch (GameStateException | WrongFieldNameException e) {
+                                // Stale read: out of turn, game ended or tile taken. Read again and retry.
+                            }
+                            game = gameService.getGame(gameId);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+
+                Game game = gameService.getGame(gameId);
+                assertThat(countMarks(game)).isEqualTo(applied.get());
+                assertThat(isOver(game)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,20 +1,36 @@
 
 package io.altr.ticTacToe.api.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.altr.ticTacToe.api.cache.GameCache;
+import io.altr.ticTacToe.api.cache.GameCacheFlusher;
+import io.altr.ticTacToe.api.dto.PlaceRequest;
+import io.altr.ticTacToe.api.dto.PlaceResult;
 import io.altr.ticTacToe.api.entity.GameEntity;
+import io.altr.ticTacToe.api.exception.GameStateOutOfTurnException;
+import io.altr.ticTacToe.api.exception.WrongFieldNameException;
 import io.altr.ticTacToe.api.repository.GameRepository;
+import io.altr.ticTacToe.api.repository.JpaGameStore;
+import io.altr.ticTacToe.api.service.impl.GameMetrics;
 import io.altr.ticTacToe.api.service.impl.GameServiceImpl;
 import io.altr.ticTacToe.engine.Game;
+import io.altr.ticTacToe.engine.Mark;
+import io.altr.ticTacToe.engine.Pos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.Statement;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 public class GameServiceTest {
@@ -33,7 +49,15 @@ public class GameServiceTest {
     @BeforeEach
     void setup() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        gameService = new GameServiceImpl(gameRepositoryMock);
+        gameService = serviceOf(new GameCache(100_000, 600_000, false), new GameMetrics(new SimpleMeterRegistry()));
+    }
+
+    private GameServiceImpl serviceOf(GameCache gameCache, GameMetrics gameMetrics) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("gameRepository", gameRepositoryMock);
+        GameCacheFlusher gameCacheFlusher = new GameCacheFlusher(gameCache, beanFactory.getBeanProvider(GameRepository.class), 500);
+        return new GameServiceImpl(new JpaGameStore(gameRepositoryMock), gameCache, gameCacheFlusher,
+                new GameUpdateRegistry(new ObjectMapper()), gameMetrics);
     }
 
     @AfterEach
@@ -58,10 +82,12 @@ public class GameServiceTest {
         Game game = new Game();
 
         ReflectionTestUtils.setField(ge, "gameId", 1);
+        ReflectionTestUtils.setField(ge, "version", 0);
         when(gameRepositoryMock.findById(1)).thenReturn(Optional.of(ge));
 
         ReflectionTestUtils.setField(geToReset, "gameId", 1);
         when(gameRepositoryMock.save(ge)).thenReturn(ge);
+        when(gameRepositoryMock.compareAndSetTileMask(1, 0, 0)).thenReturn(1);
 
         assertThat(gameService.restartGame(1)).isEqualTo(game);
     }
@@ -72,6 +98,7 @@ public class GameServiceTest {
         GameEntity ge = new GameEntity();
 
         ReflectionTestUtils.setField(ge, "gameId", 1);
+        ReflectionTestUtils.setField(ge, "version", 0);
         when(gameRepositoryMock.findById(1)).thenReturn(Optional.of(ge));
 
         assertThat(gameService.getGame(1)).isEqualTo(game);
@@ -93,4 +120,105 @@ public class GameServiceTest {
         // Final boss: leaving for later
     void placeInGame() {
     }
+
+    @Test
+    void rejectedMovesThrowOnePreallocatedExceptionWithoutStackTrace() {
+        GameEntity ge = new GameEntity(0);
+        ReflectionTestUtils.setField(ge, "gameId", 1);
+        ReflectionTestUtils.setField(ge, "version", 0);
+        when(gameRepositoryMock.findById(1)).thenReturn(Optional.of(ge));
+        when(gameRepositoryMock.compareAndSetTileMask(1, 0, 0b01 << 8)).thenReturn(1);
+
+        Throwable first = catchThrowable(() -> gameService.placeInGame(1, PlaceRequest.of(Mark.O, Pos.b2)));
+        Throwable second = catchThrowable(() -> gameService.placeInGame(1, PlaceRequest.of(Mark.O, Pos.a1)));
+
+        assertThat(first).isInstanceOf(GameStateOutOfTurnException.class)
+                .hasMessage("Can't place the mark of: \"O\" now. It's not your turn.");
+        assertThat(second).isSameAs(first);
+        assertThat(first.getStackTrace()).isEmpty();
+        assertThat(catchThrowable(() -> gameService.placeInGame(1, PlaceRequest.of(Mark.X, Pos.b2))))
+                .isNull();
+        assertThat(catchThrowable(() -> gameService.placeInGame(1, PlaceRequest.of(Mark.O, Pos.b2))))
+                .isInstanceOf(WrongFieldNameException.class)
+                .hasMessage("Pos: \"b2\" is already taken.");
+    }
+
+    @Test
+    void writeBehindMovesFlushWhenTheCacheIsFullOfDirtyGames() {
+        // One game per segment of the cache, all of them changed and not yet flushed.
+        GameCache gameCache = new GameCache(16, 600_000, true);
+        for (int gameId = 1000; gameId < 2000; gameId++) {
+            gameCache.putIfNewer(gameId, 0, 0);
+            gameCache.compareAndSet(gameId, 0, 0b01, true);
+        }
+        gameService = serviceOf(gameCache, new GameMetrics(new SimpleMeterRegistry()));
+        GameEntity ge = new GameEntity(0);
+        ReflectionTestUtils.setField(ge, "gameId", 1);
+        ReflectionTestUtils.setField(ge, "version", 0);
+        when(gameRepositoryMock.findById(1)).thenReturn(Optional.of(ge));
+
+        // The game can't be cached when loaded, but the move isn't a conflict.
+        gameService.placeInGame(1, PlaceRequest.of(Mark.X, Pos.b2));
+
+        verify(gameRepositoryMock).batchUpdateTileMasks(any(), any(), any(), eq(16));
+        assertThat(gameCache.get(1)).isEqualTo(GameCache.entryOf(1, 0b01 << 8));
+        assertThat(gameCache.dirtyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void placeInGameRecordsTimersAndRejectionsByReason() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        gameService = serviceOf(new GameCache(100, 600_000, false), new GameMetrics(meterRegistry));
+        GameEntity ge = new GameEntity(0);
+        ReflectionTestUtils.setField(ge, "gameId", 1);
+        ReflectionTestUtils.setField(ge, "version", 0);
+        when(gameRepositoryMock.findById(1)).thenReturn(Optional.of(ge));
+        when(gameRepositoryMock.compareAndSetTileMask(1, 0, 0b01 << 8)).thenReturn(1);
+
+        catchThrowable(() -> gameService.placeInGame(1, PlaceRequest.of(Mark.O, Pos.b2)));
+        catchThrowable(() -> gameService.placeInGame(1, PlaceRequest.of(Mark.O, Pos.a1)));
+        gameService.placeInGame(1, PlaceRequest.of(Mark.X, Pos.b2));
+
+        assertThat(meterRegistry.get("tictactoe.rejections").tag("reason", "OUT_OF_TURN").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("tictactoe.rejections").tag("reason", "TILE_TAKEN").counter().count())
+                .isZero();
+        assertThat(meterRegistry.get("tictactoe.service").tag("method", "placeInGame").timer().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("tictactoe.engine").timer().count()).isEqualTo(3);
+        // The game is read from the repository once, and cached from then on.
+        assertThat(meterRegistry.get("tictactoe.store").tag("operation", "find").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("tictactoe.store").tag("operation", "write").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void batchWritesWithUnreportedCountsAreReadBack() {
+        GameEntity first = new GameEntity(0);
+        ReflectionTestUtils.setField(first, "gameId", 1);
+        ReflectionTestUtils.setField(first, "version", 0);
+        GameEntity second = new GameEntity(0);
+        ReflectionTestUtils.setField(second, "gameId", 2);
+        ReflectionTestUtils.setField(second, "version", 0);
+        // After the batch, the first game holds this move, and the second one another request's.
+        GameEntity firstAfter = new GameEntity(0b01 << 8);
+        ReflectionTestUtils.setField(firstAfter, "gameId", 1);
+        ReflectionTestUtils.setField(firstAfter, "version", 1);
+        GameEntity secondAfter = new GameEntity(0b01 << 16);
+        ReflectionTestUtils.setField(secondAfter, "gameId", 2);
+        ReflectionTestUtils.setField(secondAfter, "version", 1);
+        when(gameRepositoryMock.findAllById(any()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(firstAfter, secondAfter));
+        when(gameRepositoryMock.batchCompareAndSetTileMasks(any(), any(), any(), eq(2)))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+        List<PlaceResult> placeResults = gameService.placeInGames(List.of(
+                new PlaceRequest(1, Mark.X.ordinal(), Pos.b2.ordinal()),
+                new PlaceRequest(2, Mark.X.ordinal(), Pos.b2.ordinal())));
+
+        assertThat(placeResults).extracting(PlaceResult::placed).containsExactly(true, false);
+        assertThat(placeResults.get(1).message()).isEqualTo("Game with gameId: \"2\" was changed in the meantime.");
+    }
 }
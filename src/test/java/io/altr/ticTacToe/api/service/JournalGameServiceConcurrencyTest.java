@@ -0,0 +1,29 @@
+package io.altr.ticTacToe.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the concurrency tests against the journal, with segments small enough that it grows new ones.
+ */
+@ActiveProfiles("journal")
+@TestPropertySource(properties = {
+        "tictactoe.journal.path=target/test-journal/games.journal",
+        "tictactoe.journal.segment-size=4096"})
+class JournalGameServiceConcurrencyTest extends GameServiceConcurrencyTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void runsWithoutADataSource() {
+        assertThat(applicationContext.getBeanNamesForType(DataSource.class)).isEmpty();
+    }
+}
@@ -0,0 +1,25 @@
+package io.altr.ticTacToe.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the concurrency tests against the in-memory store, where racing moves are turned away by its compare-and-set.
+ */
+@ActiveProfiles("memory")
+class MemoryGameServiceConcurrencyTest extends GameServiceConcurrencyTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void runsWithoutADataSource() {
+        assertThat(applicationContext.getBeanNamesForType(DataSource.class)).isEmpty();
+    }
+}
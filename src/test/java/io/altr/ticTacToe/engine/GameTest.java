@@ -3,6 +3,7 @@ package io.altr.ticTacToe.engine;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -142,6 +143,37 @@ class GameTest {
 
 
 
+    @Test
+    void tryPlace_StatusCodesTest(){
+        Game game = new Game();
+
+        assertEquals(Game.PLACED, game.tryPlace(Mark.X, Pos.a1));
+        assertEquals(Misplace.OUT_OF_TURN, Misplace.fromCode(game.tryPlace(Mark.X, Pos.b2)));
+        assertEquals(Misplace.TILE_TAKEN, Misplace.fromCode(game.tryPlace(Mark.O, Pos.a1)));
+        assertEquals(Misplace.NONE_PLACE, Misplace.fromCode(game.tryPlace(Mark.NONE, Pos.b2)));
+
+        assertEquals(Game.PLACED, game.tryPlace(Mark.O, Pos.c3));
+        assertEquals(Game.PLACED, game.tryPlace(Mark.X, Pos.a2));
+        assertEquals(Game.PLACED, game.tryPlace(Mark.O, Pos.c2));
+        assertEquals(Game.PLACED, game.tryPlace(Mark.X, Pos.a3));
+        assertEquals(Misplace.GAME_ENDED, Misplace.fromCode(game.tryPlace(Mark.O, Pos.c1)));
+    }
+
+
+
+    @Test
+    void markFromMask(){
+        assertEquals(Mark.NONE, Mark.fromMask(0));
+        assertEquals(Mark.X, Mark.fromMask(1));
+        assertEquals(Mark.O, Mark.fromMask(2));
+        assertThrows(NoSuchElementException.class, () -> Mark.fromMask(3));
+        assertThrows(NoSuchElementException.class, () -> Mark.fromMask(-1));
+    }
+
+
+
+
+
     void getBoardHelper(Mark mark){
         Game game = new Game();
 
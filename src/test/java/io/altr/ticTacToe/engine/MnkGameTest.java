@@ -0,0 +1,109 @@
+package io.altr.ticTacToe.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MnkGameTest {
+
+
+    void play(MnkGame game, int[][] moves){
+        for (int[] move : moves){
+            assertEquals(Game.PLACED, game.tryPlace(game.getTurnOf(), move[0], move[1]));
+        }
+    }
+
+
+
+
+
+    @Test
+    void tryPlace_StatusCodesTest(){
+        MnkGame game = new MnkGame(3, 3, 3);
+
+        assertEquals(Game.PLACED, game.tryPlace(Mark.X, 2, 0));
+        assertEquals(Misplace.OUT_OF_TURN, Misplace.fromCode(game.tryPlace(Mark.X, 1, 1)));
+        assertEquals(Misplace.TILE_TAKEN, Misplace.fromCode(game.tryPlace(Mark.O, 2, 0)));
+        assertEquals(Misplace.NONE_PLACE, Misplace.fromCode(game.tryPlace(Mark.NONE, 1, 1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> game.tryPlace(Mark.O, 3, 0));
+    }
+
+
+
+    @Test
+    void constructor_rejectsKThatDoesNotFit(){
+        assertThrows(IllegalArgumentException.class, () -> new MnkGame(3, 3, 4));
+        assertThrows(IllegalArgumentException.class, () -> new MnkGame(0, 3, 3));
+        assertThrows(IllegalArgumentException.class, () -> new MnkGame(40, 40, 33));
+    }
+
+
+
+    @Test
+    void gomoku_winsInEveryDirection(){
+        int[][][] lines = {
+                {{7, 3}, {7, 4}, {7, 5}, {7, 6}, {7, 7}},
+                {{3, 7}, {4, 7}, {5, 7}, {6, 7}, {7, 7}},
+                {{3, 3}, {4, 4}, {5, 5}, {6, 6}, {7, 7}},
+                {{3, 11}, {4, 10}, {5, 9}, {6, 8}, {7, 7}}
+        };
+        for (int[][] line : lines){
+            MnkGame game = new MnkGame(15, 15, 5);
+            for (int i = 0; i < 4; i++){
+                assertEquals(Game.PLACED, game.tryPlace(Mark.X, line[i][0], line[i][1]));
+                assertEquals(Game.PLACED, game.tryPlace(Mark.O, 0, i * 2));
+                assertEquals(Mark.NONE, game.getWhoWon());
+            }
+            assertEquals(Game.PLACED, game.tryPlace(Mark.X, line[4][0], line[4][1]));
+            assertEquals(Mark.X, game.getWhoWon());
+            assertEquals(Misplace.GAME_ENDED, Misplace.fromCode(game.tryPlace(Mark.O, 14, 14)));
+        }
+    }
+
+
+
+    @Test
+    void gomoku_lineDoesNotWrapAcrossRows(){
+        MnkGame game = new MnkGame(15, 15, 5);
+        play(game, new int[][]{
+                {0, 12}, {5, 0}, {0, 13}, {5, 2}, {0, 14}, {5, 4}, {1, 0}, {5, 6}, {1, 1}
+        });
+        assertEquals(Mark.NONE, game.getWhoWon());
+    }
+
+
+
+    @Test
+    void gomoku_longerRunStillWins(){
+        MnkGame game = new MnkGame(15, 15, 5);
+        play(game, new int[][]{
+                {7, 0}, {0, 0}, {7, 1}, {0, 2}, {7, 3}, {0, 4}, {7, 4}, {0, 6}, {7, 5}, {0, 8}
+        });
+        assertEquals(Mark.NONE, game.getWhoWon());
+        assertEquals(Game.PLACED, game.tryPlace(Mark.X, 7, 2));
+        assertEquals(Mark.X, game.getWhoWon());
+    }
+
+
+
+    @Test
+    void threeByThree_matchesGameOnRandomPlay(){
+        Random random = new Random(42);
+        for (int round = 0; round < 2000; round++){
+            Game game = new Game();
+            MnkGame mnkGame = new MnkGame(3, 3, 3);
+
+            while (game.getWhoWon() == Mark.NONE && !mnkGame.isFull()){
+                int pos = random.nextInt(9);
+                Mark other = game.getTurnOf() == Mark.X ? Mark.O : Mark.X;
+                Mark mark = random.nextInt(8) == 0 ? other : game.getTurnOf();
+                assertEquals(game.tryPlace(mark, pos), mnkGame.tryPlace(mark, 2 - pos / 3, 2 - pos % 3));
+                assertEquals(game.getWhoWon(), mnkGame.getWhoWon());
+                assertEquals(game.getTurnOf(), mnkGame.getTurnOf());
+            }
+            assertEquals(game.toString(), mnkGame.toString());
+        }
+    }
+}
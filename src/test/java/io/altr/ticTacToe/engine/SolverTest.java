@@ -0,0 +1,110 @@
+package io.altr.ticTacToe.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+
+
+    // Reference implementation: plain minimax without pruning or a table, for the side to move.
+    int minimax(int tileMask, Mark turnOf, Map<Integer, Integer> values){
+        Mark opponent = turnOf == Mark.X ? Mark.O : Mark.X;
+        Game game = new Game();
+        game.setTileMask(tileMask);
+
+        int value;
+        if (game.hasWon(opponent)) value = Solver.LOSS;
+        else {
+            value = Solver.DRAW;
+            boolean anyMove = false;
+            int best = Solver.LOSS;
+            for (int i=0; i<9; i++){
+                if (((tileMask >> i*2) & 0b11) != 0b00) continue;
+                anyMove = true;
+                best = Math.max(best, -minimax(tileMask | turnOf.mask << i*2, opponent, values));
+            }
+            if (anyMove) value = best;
+        }
+        values.put(tileMask, value);
+        return value;
+    }
+
+
+
+
+
+    @Test
+    void value_emptyBoardIsDraw(){
+        assertEquals(Solver.DRAW, Solver.value(new Game()));
+    }
+
+
+
+    @Test
+    void bestMove_takesImmediateWin(){
+        Game game = new Game();
+        game.doPlace(Mark.X, Pos.a1);
+        game.doPlace(Mark.O, Pos.c3);
+        game.doPlace(Mark.X, Pos.a2);
+        game.doPlace(Mark.O, Pos.c2);
+
+        assertEquals(Solver.WIN, Solver.value(game));
+        assertEquals(Optional.of(Pos.a3), Solver.bestMove(game));
+    }
+
+
+
+    @Test
+    void bestMove_blocksOpponent(){
+        Game game = new Game();
+        game.doPlace(Mark.X, Pos.a1);
+        game.doPlace(Mark.O, Pos.b2);
+        game.doPlace(Mark.X, Pos.a2);
+
+        assertEquals(Optional.of(Pos.a3), Solver.bestMove(game));
+    }
+
+
+
+    @Test
+    void bestMove_emptyWhenGameEnded(){
+        Game game = new Game(0b01_01_01__00_00_00__00_10_10);
+        assertEquals(Solver.LOSS, Solver.value(game));
+        assertTrue(Solver.bestMove(game).isEmpty());
+    }
+
+
+
+    @Test
+    void value_rejectsUnreachablePosition(){
+        assertThrows(IllegalArgumentException.class, () -> Solver.value(0b01_01_01__01_00_00__00_00_00));
+    }
+
+
+
+    @Test
+    void solver_matchesMinimaxOnEveryReachableBoard(){
+        Map<Integer, Integer> values = new HashMap<>();
+        minimax(0, Mark.X, values);
+        assertEquals(5478, values.size());
+
+        for (Map.Entry<Integer, Integer> entry : values.entrySet()){
+            int tileMask = entry.getKey();
+            assertEquals(entry.getValue(), Solver.value(tileMask),
+                    "Value mismatch on tileMask " + Integer.toBinaryString(tileMask));
+
+            int pos = Solver.bestMove(tileMask);
+            if (pos == Solver.NO_MOVE) continue;
+
+            Game game = new Game(tileMask);
+            assertEquals(Game.PLACED, game.tryPlace(game.getTurnOf(), pos));
+            assertEquals(entry.getValue(), -values.get(game.getTileMask()),
+                    "Best move " + pos + " is not optimal on tileMask " + Integer.toBinaryString(tileMask));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.altr.ticTacToe.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetryTest {
+
+
+    void collectReachable(int tileMask, Mark turnOf, Set<Integer> reachable){
+        if (!reachable.add(tileMask)) return;
+
+        Game game = new Game();
+        game.setTileMask(tileMask);
+        if (game.hasWon(Mark.X) || game.hasWon(Mark.O)) return;
+
+        Mark next = turnOf == Mark.X ? Mark.O : Mark.X;
+        for (int i=0; i<9; i++){
+            if (((tileMask >> i*2) & 0b11) != 0b00) continue;
+            collectReachable(tileMask | turnOf.mask << i*2, next, reachable);
+        }
+    }
+
+
+
+
+
+    @Test
+    void transform_movesEveryTileLikeMap(){
+        for (int t = 0; t < Symmetry.TRANSFORMS; t++){
+            for (int pos = 0; pos < 9; pos++){
+                int tileMask = Mark.X.mask << pos*2 | Mark.O.mask << ((pos + 1) % 9)*2;
+                int expected = Mark.X.mask << Symmetry.map(pos, t)*2
+                        | Mark.O.mask << Symmetry.map((pos + 1) % 9, t)*2;
+                assertEquals(expected, Symmetry.transform(tileMask, t));
+            }
+        }
+    }
+
+
+
+    @Test
+    void transform_rotate90(){
+        // X X X        O - X
+        // - - -   ->   - - X
+        // O - -        - - X
+        int tileMask = 0b01_01_01__00_00_00__10_00_00;
+        int rotated = 0b10_00_01__00_00_01__00_00_01;
+        Set<Integer> images = new HashSet<>();
+        for (int t = 0; t < Symmetry.TRANSFORMS; t++) images.add(Symmetry.transform(tileMask, t));
+        assertTrue(images.contains(rotated));
+        assertEquals(8, images.size());
+    }
+
+
+
+    @Test
+    void mapBack_invertsMap(){
+        for (int t = 0; t < Symmetry.TRANSFORMS; t++){
+            for (int pos = 0; pos < 9; pos++){
+                assertEquals(pos, Symmetry.mapBack(Symmetry.map(pos, t), t));
+            }
+        }
+        assertEquals(Pos.b2, Symmetry.mapBack(Pos.b2, 3));
+    }
+
+
+
+    @Test
+    void canonicalize_sameForAllSymmetricBoards(){
+        Set<Integer> reachable = new HashSet<>();
+        collectReachable(0, Mark.X, reachable);
+
+        Set<Integer> canonical = new HashSet<>();
+        for (int tileMask : reachable){
+            int packed = Symmetry.canonicalize(tileMask);
+            int key = Symmetry.canonicalOf(packed);
+            assertEquals(key, Symmetry.transform(tileMask, Symmetry.transformOf(packed)));
+            canonical.add(key);
+
+            for (int t = 0; t < Symmetry.TRANSFORMS; t++){
+                int image = Symmetry.transform(tileMask, t);
+                assertTrue(key <= image);
+                assertEquals(key, Symmetry.canonicalOf(Symmetry.canonicalize(image)));
+            }
+        }
+        assertEquals(765, canonical.size());
+    }
+
+
+
+    @Test
+    void canonicalize_mapsSolverMoveBack(){
+        Game game = new Game();
+        game.doPlace(Mark.X, Pos.c1);
+        game.doPlace(Mark.O, Pos.a3);
+        game.doPlace(Mark.X, Pos.c2);
+
+        int value = Solver.value(game);
+        int packed = Symmetry.canonicalize(game.getTileMask());
+        int canonicalMove = Solver.bestMove(Symmetry.canonicalOf(packed));
+        int move = Symmetry.mapBack(canonicalMove, Symmetry.transformOf(packed));
+
+        assertEquals(Game.PLACED, game.tryPlace(Mark.O, move));
+        assertEquals(-value, Solver.value(game));
+    }
+}
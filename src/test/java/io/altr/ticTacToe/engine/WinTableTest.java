@@ -0,0 +1,82 @@
+package io.altr.ticTacToe.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WinTableTest {
+
+
+    // Reference implementation: the loop over winningSmasks that hasWon used before the table.
+    boolean hasWonByLoop(Game game, Mark mark){
+        if (mark == Mark.NONE) return false;
+        for (int smask: Game.winningSmasks){
+            if (game.isState(smask, mark)) return true;
+        }
+        return false;
+    }
+
+
+
+    void collectReachable(int tileMask, Mark turnOf, Set<Integer> reachable){
+        if (!reachable.add(tileMask)) return;
+
+        Game game = new Game();
+        game.setTileMask(tileMask);
+        if (hasWonByLoop(game, Mark.X) || hasWonByLoop(game, Mark.O)) return;
+
+        Mark next = turnOf == Mark.X ? Mark.O : Mark.X;
+        for (int i=0; i<9; i++){
+            if (((tileMask >> i*2) & 0b11) != 0b00) continue;
+            collectReachable(tileMask | turnOf.mask << i*2, next, reachable);
+        }
+    }
+
+
+
+
+
+    @Test
+    void occupancy(){
+        int tileMask = 0b01_01_01__00_00_00__00_10_10;
+        assertEquals(0b111_000_000, WinTable.occupancy(tileMask, Mark.X));
+        assertEquals(0b000_000_011, WinTable.occupancy(tileMask, Mark.O));
+
+        tileMask = 0b10_01_10__01_10_01__10_01_10;
+        assertEquals(0b010_101_010, WinTable.occupancy(tileMask, Mark.X));
+        assertEquals(0b101_010_101, WinTable.occupancy(tileMask, Mark.O));
+    }
+
+
+
+    @Test
+    void isWin_winningSmasks(){
+        for (int smask : Game.winningSmasks){
+            assertTrue(WinTable.isWin(smask));
+        }
+        assertFalse(WinTable.isWin(0b000_000_000));
+        assertFalse(WinTable.isWin(0b110_001_110));
+        assertTrue(WinTable.isWin(0b111_111_111));
+    }
+
+
+
+    @Test
+    void hasWon_matchesLoopOnEveryReachableBoard(){
+        Set<Integer> reachable = new HashSet<>();
+        collectReachable(0, Mark.X, reachable);
+        assertEquals(5478, reachable.size());
+
+        Game game = new Game();
+        for (int tileMask : reachable){
+            game.setTileMask(tileMask);
+            for (Mark mark : Mark.values()){
+                assertEquals(hasWonByLoop(game, mark), game.hasWon(mark),
+                        "Mismatch for mark " + mark + " on tileMask " + Integer.toBinaryString(tileMask));
+            }
+        }
+    }
+}